@@ -2,18 +2,65 @@ package space.ngrix.config;
 
 import space.ngrix.config.backend.Config;
 import space.ngrix.config.backend.Json;
+import space.ngrix.config.backend.internal.FlatFile;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ConfigAPI {
 
     protected static JavaPlugin instance;
 
+    private static final Set<Plugin> FLUSH_ON_DISABLE = ConcurrentHashMap.newKeySet();
+
     public ConfigAPI(JavaPlugin plugin) {
         instance = plugin;
+        flushOnDisable(plugin);
+    }
+
+    /**
+     * Write all files with changes that weren't written yet when a plugin gets disabled, see {@link FlatFile#flushAll()}
+     *
+     * @param plugin the plugin
+     */
+    public static void flushOnDisable(Plugin plugin) {
+        if (FLUSH_ON_DISABLE.add(plugin)) {
+            try {
+                plugin.getServer().getPluginManager().registerEvents(new FlushListener(plugin), plugin);
+            } catch (RuntimeException e) {
+                FLUSH_ON_DISABLE.remove(plugin);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Writes the changes of files with a write delay that weren't written yet when the plugin gets disabled
+     *
+     * @see FlatFile#setWriteDelay(long)
+     */
+    private static class FlushListener implements Listener {
+        private final Plugin plugin;
+
+        private FlushListener(Plugin plugin) {
+            this.plugin = plugin;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPluginDisable(PluginDisableEvent event) {
+            if (event.getPlugin() == plugin) {
+                FlatFile.flushAll();
+                FLUSH_ON_DISABLE.remove(plugin);
+            }
+        }
     }
 
     /**
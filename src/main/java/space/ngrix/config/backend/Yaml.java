@@ -131,7 +131,7 @@ public class Yaml extends FlatFile {
         }
       }
 
-      write();
+      markDirty();
     } catch (final Exception ex) {
       ex.printStackTrace();
     }
@@ -153,12 +153,12 @@ public class Yaml extends FlatFile {
   protected void write(final FileData data) throws IOException {
     // If Comments shouldn't be preserved
     if (!ConfigSettings.PRESERVE_COMMENTS.equals(this.configSettings)) {
-      write0(this.fileData);
+      write0(data);
       return;
     }
 
     val unEdited = this.yamlEditor.read();
-    write0(this.fileData);
+    write0(data);
     this.yamlEditor.write(this.parser.parseLines(unEdited, this.yamlEditor.readKeys()));
   }
 
@@ -0,0 +1,122 @@
+package space.ngrix.config.backend.internal;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.NonNull;
+
+/**
+ * A key path like <code>players.uuid.coins</code> that was split into its parts once.
+ *
+ * <p>Keys can be stored in constants and passed to the {@link DataStorage} accessors. String keys are
+ * parsed through a cache of the most recently used keys, so looking up a key that was used before
+ * doesn't split it again.
+ */
+public final class ConfigKey {
+
+  private static final int MAX_CACHE_SIZE = 8192;
+  private static final int MAX_CHILDREN = 1024;
+  private static final Map<String, ConfigKey> CACHE = lruCache(MAX_CACHE_SIZE);
+
+  private final String path;
+  private final String[] parts;
+  private final Map<String, ConfigKey> children = lruCache(MAX_CHILDREN);
+
+  private ConfigKey(final String path) {
+    this.path = path;
+    this.parts = path.split("\\.");
+  }
+
+  /**
+   * Get the parsed key of a path
+   *
+   * @param path The path, parts are separated by dots
+   * @return The parsed key
+   */
+  public static ConfigKey of(@NonNull final String path) {
+    ConfigKey key = CACHE.get(path);
+    if (key == null) {
+      key = new ConfigKey(path);
+      CACHE.put(path, key);
+    }
+    return key;
+  }
+
+  /**
+   * Get the key of a child path of this key
+   *
+   * @param child The child path relative to this key
+   * @return The parsed key of <code>this.child</code>
+   */
+  public ConfigKey resolve(@NonNull final String child) {
+    ConfigKey key = this.children.get(child);
+    if (key == null) {
+      key = of(this.path + "." + child);
+      this.children.put(child, key);
+    }
+    return key;
+  }
+
+  /**
+   * Get the key of a child path of this key
+   *
+   * @param child The child key relative to this key
+   * @return The parsed key of <code>this.child</code>
+   */
+  public ConfigKey resolve(@NonNull final ConfigKey child) {
+    return resolve(child.path);
+  }
+
+  // Paths like players.<uuid>.coins are parsed once per player, only the recently used ones are kept
+  private static Map<String, ConfigKey> lruCache(final int maxSize) {
+    return Collections.synchronizedMap(new LinkedHashMap<String, ConfigKey>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, ConfigKey> eldest) {
+        return size() > maxSize;
+      }
+    });
+  }
+
+  /**
+   * @return The amount of parts of this key
+   */
+  public int size() {
+    return this.parts.length;
+  }
+
+  /**
+   * @param index The index of the part
+   * @return The part of this key at the index
+   */
+  public String getPart(final int index) {
+    return this.parts[index];
+  }
+
+  // Not copied, mustn't be changed
+  String[] parts() {
+    return this.parts;
+  }
+
+  /**
+   * @return The path of this key
+   */
+  @Override
+  public String toString() {
+    return this.path;
+  }
+
+  @Override
+  public int hashCode() {
+    return this.path.hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj == this) {
+      return true;
+    } else if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return this.path.equals(((ConfigKey) obj).path);
+  }
+}
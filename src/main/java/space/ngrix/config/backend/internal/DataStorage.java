@@ -9,6 +9,7 @@ import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public interface DataStorage {
@@ -48,6 +49,18 @@ public interface DataStorage {
 
   void remove(final String key);
 
+  /**
+   * Apply many changes at once. Implementations backed by a file only check for a reload once
+   * and write the file once after all changes were applied.
+   *
+   * <p>This isn't a transaction: if the consumer throws, the changes made until then are kept.
+   *
+   * @param changes Applies the changes to the data-structure it receives
+   */
+  default void batch(@NonNull final Consumer<DataStorage> changes) {
+    changes.accept(this);
+  }
+
   // ----------------------------------------------------------------------------------------------------
   //
   // Default-Implementations
@@ -338,4 +351,70 @@ public interface DataStorage {
       return ClassWrapper.getFromDef(raw, def);
     }
   }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Parsed keys, see ConfigKey
+  // ----------------------------------------------------------------------------------------------------
+
+  @Nullable
+  default Object get(@NonNull final ConfigKey key) {
+    return get(key.toString());
+  }
+
+  default boolean contains(@NonNull final ConfigKey key) {
+    return contains(key.toString());
+  }
+
+  default void set(@NonNull final ConfigKey key, final Object value) {
+    set(key.toString(), value);
+  }
+
+  default void remove(@NonNull final ConfigKey key) {
+    remove(key.toString());
+  }
+
+  default <T> T get(@NonNull final ConfigKey key, final T def) {
+    final Object raw = get(key);
+    return raw == null ? def : ClassWrapper.getFromDef(raw, def);
+  }
+
+  default <T> T getOrDefault(@NonNull final ConfigKey key, @NonNull final T def) {
+    final Object raw = get(key);
+    return raw == null ? def : ClassWrapper.getFromDef(raw, def);
+  }
+
+  default <T> T getOrSetDefault(@NonNull final ConfigKey key, final T def) {
+    final Object raw = get(key);
+    //Key is not yet present in data-structure
+    if (raw == null) {
+      set(key, def);
+      return def;
+    } else {
+      return ClassWrapper.getFromDef(raw, def);
+    }
+  }
+
+  default String getString(@NonNull final ConfigKey key) {
+    return getOrDefault(key, "");
+  }
+
+  default long getLong(@NonNull final ConfigKey key) {
+    return getOrDefault(key, 0L);
+  }
+
+  default int getInt(@NonNull final ConfigKey key) {
+    return getOrDefault(key, 0);
+  }
+
+  default boolean getBoolean(@NonNull final ConfigKey key) {
+    return getOrDefault(key, false);
+  }
+
+  default double getDouble(@NonNull final ConfigKey key) {
+    return getOrDefault(key, 0D);
+  }
+
+  default List<String> getStringList(@NonNull final ConfigKey key) {
+    return getStringList(key.toString());
+  }
 }
@@ -3,11 +3,13 @@ package space.ngrix.config.backend.internal;
 import space.ngrix.config.backend.internal.settings.DataType;
 import space.ngrix.config.backend.util.JsonUtils;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
 import org.json.JSONObject;
@@ -15,11 +17,24 @@ import org.json.JSONObject;
 /**
  * An extended HashMap, to easily process the nested HashMaps created by reading the Configuration
  * files.
+ *
+ * <p>Optionally keeps a flat index from every full key path to its value, see {@link
+ * #setIndexed(boolean)}.
  */
 @SuppressWarnings("unchecked")
 public class FileData {
 
+  // ConcurrentHashMap can't hold null values
+  private static final Object NULL = new Object();
+
   private final Map<String, Object> localMap;
+  private volatile boolean indexed = false;
+  // Built lazily, null if it needs to be rebuilt
+  private volatile Map<String, Object> index;
+  // Only used while indexed, cleared when keys are added or removed
+  private volatile Set<String> keySetCache;
+  private final Map<String, Set<String>> subKeySetCache = new ConcurrentHashMap<>();
+  private final Map<String, Integer> sizeCache = new ConcurrentHashMap<>();
 
   public FileData(final Map<String, Object> map, final DataType dataType) {
     this.localMap = dataType.getMapImplementation();
@@ -36,8 +51,9 @@ public class FileData {
     this.localMap.putAll(jsonObject.toMap());
   }
 
-  public void clear() {
+  public synchronized void clear() {
     this.localMap.clear();
+    invalidateIndex();
   }
 
   /**
@@ -45,23 +61,122 @@ public class FileData {
    *
    * @param map Map to load data from
    */
-  public void loadData(final Map<String, Object> map) {
+  public synchronized void loadData(final Map<String, Object> map) {
     clear();
 
     if (map != null) {
       this.localMap.putAll(map);
     }
+    invalidateIndex();
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Path index
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * Check whether the flat path index is used.
+   *
+   * @return true if deep lookups use the index.
+   */
+  public boolean isIndexed() {
+    return this.indexed;
+  }
+
+  /**
+   * Set whether a flat index from every full key path to its value should be kept. Deep lookups
+   * then only need one hash lookup and the key sets and sizes are cached until keys are added or
+   * removed. The index is built on the next lookup and kept up to date by {@link #insert}, {@link
+   * #remove} and the other methods of this class. Changes to the maps returned by {@link #toMap()}
+   * or {@link #get(String)} aren't tracked, the index needs to be turned off and on again after
+   * those.
+   *
+   * @param indexed true to use the index.
+   */
+  public synchronized void setIndexed(final boolean indexed) {
+    this.indexed = indexed;
+    invalidateIndex();
+  }
+
+  private Map<String, Object> index() {
+    Map<String, Object> index = this.index;
+    if (index == null) {
+      synchronized (this) {
+        index = this.index;
+        if (index == null) {
+          index = new ConcurrentHashMap<>();
+          indexMap(index, null, this.localMap);
+          this.index = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  private void indexMap(
+          final Map<String, Object> index,
+          final String prefix,
+          final Map<?, ?> map) {
+    for (final Map.Entry<?, ?> entry : map.entrySet()) {
+      // Lookups only ever find string keys
+      if (!(entry.getKey() instanceof String)) {
+        continue;
+      }
+      final String path = prefix == null ? (String) entry.getKey() : prefix + "." + entry.getKey();
+      final Object value = entry.getValue();
+      index.put(path, value == null ? NULL : value);
+      if (value instanceof Map) {
+        indexMap(index, path, (Map<?, ?>) value);
+      }
+    }
+  }
+
+  private void invalidateIndex() {
+    this.index = null;
+    invalidateKeySets();
+  }
+
+  private void invalidateKeySets() {
+    this.keySetCache = null;
+    this.subKeySetCache.clear();
+    this.sizeCache.clear();
+  }
+
+  // The path of the first parts of a key
+  private static String prefix(final String path, final String[] parts, final int lastPart) {
+    int length = lastPart;
+    for (int i = 0; i <= lastPart; i++) {
+      length += parts[i].length();
+    }
+    return path.substring(0, length);
   }
 
   /**
    * Method to get the object assign to a key from a FileData Object.
    *
+   * <p>Nested maps are returned as they are stored, not copied. Later calls to {@link
+   * #insert(String, Object)} change them in place, so a returned map shows those changes. Changing
+   * a returned map changes this data without updating the path index, copy it instead.
+   *
    * @param key the key to look for.
    * @return the value assigned to the given key or null if the key does not exist.
    */
   public Object get(final String key) {
-    final String[] parts = key.split("\\.");
-    return get(this.localMap, parts, 0);
+    return get(ConfigKey.of(key));
+  }
+
+  /**
+   * Method to get the object assign to a key from a FileData Object, see {@link #get(String)}.
+   *
+   * @param key the parsed key to look for.
+   * @return the value assigned to the given key or null if the key does not exist.
+   */
+  public Object get(final ConfigKey key) {
+    if (this.indexed) {
+      final Object value = index().get(key.toString());
+      return value == NULL ? null : value;
+    }
+    return get(this.localMap, key.parts(), 0);
   }
 
   private Object get(final Map<String, Object> map, final String[] key, final int id) {
@@ -78,34 +193,72 @@ public class FileData {
   }
 
   /**
-   * Method to assign a value to a key.
+   * Method to assign a value to a key. The nested maps on the path are changed in place, only
+   * missing ones are created, so the cost doesn't depend on the amount of sibling keys.
    *
    * @param key   the key to be used.
-   * @param value the value to be assigned to the key.
+   * @param value the value to be assigned to the key. Maps are copied.
    */
-  public synchronized void insert(final String key, final Object value) {
-    final String[] parts = key.split("\\.");
-    this.localMap.put(
-            parts[0],
-            this.localMap.containsKey(parts[0]) && this.localMap.get(parts[0]) instanceof Map
-                    ? insert((Map<String, Object>) this.localMap.get(parts[0]), parts, value, 1)
-                    : insert(createNewMap(), parts, value, 1));
+  public void insert(final String key, final Object value) {
+    insert(ConfigKey.of(key), value);
   }
 
-  private Object insert(
-          final Map<String, Object> map, final String[] key, final Object value,
-          final int id) {
-    if (id < key.length) {
-      final Map<String, Object> tempMap = createNewMap(map);
-      final Map<String, Object> childMap =
-              map.containsKey(key[id]) && map.get(key[id]) instanceof Map
-                      ? (Map<String, Object>) map.get(key[id])
-                      : createNewMap();
-      tempMap.put(key[id], insert(childMap, key, value, id + 1));
-      return tempMap;
-    } else {
+  /**
+   * Method to assign a value to a key, see {@link #insert(String, Object)}.
+   *
+   * @param key   the parsed key to be used.
+   * @param value the value to be assigned to the key. Maps are copied.
+   */
+  public synchronized void insert(final ConfigKey key, final Object value) {
+    final String[] parts = key.parts();
+    final Map<String, Object> index = this.indexed ? index() : null;
+    boolean keysChanged = false;
+    Map<String, Object> map = this.localMap;
+    for (int i = 0; i < parts.length - 1; i++) {
+      final Object child = map.get(parts[i]);
+      if (child instanceof Map) {
+        map = (Map<String, Object>) child;
+      } else {
+        final Map<String, Object> childMap = createNewMap();
+        map.put(parts[i], childMap);
+        map = childMap;
+        keysChanged = true;
+        if (index != null) {
+          index.put(prefix(key.toString(), parts, i), childMap);
+        }
+      }
+    }
+    final String last = parts[parts.length - 1];
+    final boolean existed = map.containsKey(last);
+    final Object copy = copyMaps(value);
+    final Object old = map.put(last, copy);
+    if (old instanceof Map) {
+      // The paths below the old map would have to be searched
+      invalidateIndex();
+      return;
+    }
+    if (index != null) {
+      index.put(key.toString(), copy == null ? NULL : copy);
+      if (copy instanceof Map) {
+        indexMap(index, key.toString(), (Map<?, ?>) copy);
+      }
+    }
+    if (keysChanged || !existed || copy instanceof Map) {
+      invalidateKeySets();
+    }
+  }
+
+  // Nested maps are changed in place, so maps that are inserted mustn't be shared with the caller
+  @SuppressWarnings("rawtypes")
+  private Object copyMaps(final Object value) {
+    if (!(value instanceof Map)) {
       return value;
     }
+    final Map copy = createNewMap();
+    for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+      copy.put(entry.getKey(), copyMaps(entry.getValue()));
+    }
+    return copy;
   }
 
   /**
@@ -115,8 +268,20 @@ public class FileData {
    * @return true if the key exists, otherwise false.
    */
   public boolean containsKey(final String key) {
-    final String[] parts = key.split("\\.");
-    return containsKey(this.localMap, parts, 0);
+    return containsKey(ConfigKey.of(key));
+  }
+
+  /**
+   * Check whether the map contains a certain key.
+   *
+   * @param key the parsed key to be looked for.
+   * @return true if the key exists, otherwise false.
+   */
+  public boolean containsKey(final ConfigKey key) {
+    if (this.indexed) {
+      return index().containsKey(key.toString());
+    }
+    return containsKey(this.localMap, key.parts(), 0);
   }
 
   private boolean containsKey(
@@ -139,10 +304,35 @@ public class FileData {
    *
    * @param key the key to be removed from the map.
    */
-  public synchronized void remove(final String key) {
-    if (containsKey(key)) {
-      final String[] parts = key.split("\\.");
-      remove(parts);
+  public void remove(final String key) {
+    remove(ConfigKey.of(key));
+  }
+
+  /**
+   * Remove a key with its assigned value from the map if given key exists.
+   *
+   * @param key the parsed key to be removed from the map.
+   */
+  public synchronized void remove(final ConfigKey key) {
+    if (!containsKey(key)) {
+      return;
+    }
+    if (!this.indexed) {
+      remove(key.parts());
+      return;
+    }
+    final String[] parts = key.parts();
+    final Object parent = parts.length > 1
+            ? index().get(prefix(key.toString(), parts, parts.length - 2))
+            : null;
+    final Object removed = get(key);
+    remove(parts);
+    if (removed instanceof Map || parent instanceof Map && ((Map<?, ?>) parent).isEmpty()) {
+      // Paths below the removed map or emptied parents were removed too
+      invalidateIndex();
+    } else {
+      index().remove(key.toString());
+      invalidateKeySets();
     }
   }
 
@@ -207,7 +397,20 @@ public class FileData {
    * @return the keySet of all layers of localMap combined (Format: key.subkey).
    */
   public Set<String> keySet() {
-    return multiLayerKeySet(this.localMap);
+    if (!this.indexed) {
+      return multiLayerKeySet(this.localMap);
+    }
+    final Set<String> keySet = this.keySetCache;
+    if (keySet != null) {
+      return keySet;
+    }
+    // Computed and stored while no change can happen, so no stale set is cached
+    synchronized (this) {
+      if (this.keySetCache == null) {
+        this.keySetCache = Collections.unmodifiableSet(indexedKeySet(null));
+      }
+      return this.keySetCache;
+    }
   }
 
   public Set<Map.Entry<String, Object>> entrySet() {
@@ -226,9 +429,39 @@ public class FileData {
    * (Format: key.subkey).
    */
   public Set<String> keySet(final String key) {
-    return get(key) instanceof Map
-            ? multiLayerKeySet((Map<String, Object>) get(key))
-            : new HashSet<>();
+    if (!this.indexed) {
+      return get(key) instanceof Map
+              ? multiLayerKeySet((Map<String, Object>) get(key))
+              : new HashSet<>();
+    }
+    Set<String> keySet = this.subKeySetCache.get(key);
+    if (keySet != null) {
+      return keySet;
+    }
+    synchronized (this) {
+      keySet = this.subKeySetCache.get(key);
+      if (keySet == null) {
+        if (!(get(key) instanceof Map)) {
+          // Misses aren't cached, the cache only holds as many entries as there are sections
+          return new HashSet<>();
+        }
+        keySet = Collections.unmodifiableSet(indexedKeySet(key));
+        this.subKeySetCache.put(key, keySet);
+      }
+      return keySet;
+    }
+  }
+
+  // The same as multiLayerKeySet, but collected from the index
+  private Set<String> indexedKeySet(final String key) {
+    final String prefix = key == null ? "" : key + ".";
+    final Set<String> out = new HashSet<>();
+    for (final Map.Entry<String, Object> entry : index().entrySet()) {
+      if (!(entry.getValue() instanceof Map) && entry.getKey().startsWith(prefix)) {
+        out.add(entry.getKey().substring(prefix.length()));
+      }
+    }
+    return out;
   }
 
   /**
@@ -299,11 +532,31 @@ public class FileData {
    * @return the size of all sublayers of the given key or 0 if the key does not exist.
    */
   public int size(final String key) {
-    return this.localMap.size();
+    if (!this.indexed) {
+      final Object value = get(key);
+      return value instanceof Map ? size((Map<String, Object>) value) : 0;
+    }
+    Integer size = this.sizeCache.get(key);
+    if (size != null) {
+      return size;
+    }
+    synchronized (this) {
+      size = this.sizeCache.get(key);
+      if (size == null) {
+        final Object value = get(key);
+        if (!(value instanceof Map)) {
+          return 0;
+        }
+        size = size((Map<String, Object>) value);
+        this.sizeCache.put(key, size);
+      }
+      return size;
+    }
   }
 
-  public void putAll(final Map<String, Object> map) {
+  public synchronized void putAll(final Map<String, Object> map) {
     this.localMap.putAll(map);
+    invalidateIndex();
   }
 
   private int size(final Map<String, Object> map) {
@@ -320,6 +573,13 @@ public class FileData {
   // Utility functions
   // ----------------------------------------------------------------------------------------------------
 
+  /**
+   * Get the data as a map. The map and its nested maps are the ones this data is stored in, not
+   * copies, so they show later changes and mustn't be changed directly. Use {@link #copy()} for a
+   * map that doesn't change.
+   *
+   * @return The data
+   */
   public Map<String, Object> toMap() {
     if (this.localMap != null) {
       return this.localMap;
@@ -328,6 +588,17 @@ public class FileData {
     }
   }
 
+  /**
+   * Copy the data, nested maps are copied as well so the copy doesn't change with this data.
+   *
+   * @return The copy
+   */
+  public synchronized FileData copy() {
+    return new FileData(
+        (Map<String, Object>) copyMaps(this.localMap),
+        isSorted() ? DataType.SORTED : DataType.UNSORTED);
+  }
+
   public JSONObject toJsonObject() {
     return JsonUtils.getJsonFromMap(this.localMap);
   }
@@ -1,5 +1,6 @@
 package space.ngrix.config.backend.internal;
 
+import space.ngrix.config.ConfigAPI;
 import space.ngrix.config.backend.annotation.ConfigPath;
 import space.ngrix.config.backend.internal.provider.SimplixProviders;
 import space.ngrix.config.backend.internal.settings.DataType;
@@ -12,10 +13,17 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 import lombok.*;
+import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.Nullable;
 
 @Getter
@@ -23,6 +31,16 @@ import org.jetbrains.annotations.Nullable;
 @EqualsAndHashCode
 public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
 
+  // Single daemon thread that runs the delayed writes of all files
+  private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    final Thread thread = new Thread(runnable, "FlatFile-Writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private static final Set<FlatFile> DIRTY_FILES = Collections.synchronizedSet(
+      Collections.newSetFromMap(new IdentityHashMap<>()));
+  private static final AtomicBoolean FLUSH_HOOKS_REGISTERED = new AtomicBoolean();
+
   protected final File file;
   protected final FileType fileType;
   @Setter
@@ -30,10 +48,47 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
   protected DataType dataType = DataType.UNSORTED;
   protected FileData fileData;
   @Nullable
+  @Setter
   protected Consumer<FlatFile> reloadConsumer;
   @Setter
   protected String pathPrefix;
-  private long lastLoaded;
+  private volatile long lastLoaded;
+  @EqualsAndHashCode.Exclude
+  private volatile long writeDelay = 0;
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private volatile boolean dirty = false;
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private ScheduledFuture<?> scheduledFlush;
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final AtomicLong mergedWrites = new AtomicLong();
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private volatile int batchDepth = 0;
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private boolean batchChanged = false;
+  // Serializes the disk writes of this file, they don't hold the monitor of the file
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final Object writeLock = new Object();
+  // Counted up for every snapshot that is written, guarded by the monitor of the file
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private long snapshotVersion = 0;
+  // The newest snapshot that was written, guarded by writeLock
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private long writtenVersion = 0;
 
   protected FlatFile(
       @NonNull final String name,
@@ -133,18 +188,26 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
 
   @Override
   public synchronized void set(final String key, final Object value) {
+    set(ConfigKey.of(key), value);
+  }
+
+  @Override
+  public synchronized void set(final ConfigKey key, final Object value) {
     reloadIfNeeded();
-    final String finalKey = (this.pathPrefix == null) ? key : this.pathPrefix + "." + key;
-    this.fileData.insert(finalKey, value);
-    write();
+    this.fileData.insert(withPrefix(key), value);
+    markDirty();
     this.lastLoaded = System.currentTimeMillis();
   }
 
   @Override
   public final Object get(final String key) {
+    return get(ConfigKey.of(key));
+  }
+
+  @Override
+  public final Object get(final ConfigKey key) {
     reloadIfNeeded();
-    final String finalKey = this.pathPrefix == null ? key : this.pathPrefix + "." + key;
-    return getFileData().get(finalKey);
+    return getFileData().get(withPrefix(key));
   }
 
   /**
@@ -155,9 +218,13 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
    */
   @Override
   public final boolean contains(final String key) {
+    return contains(ConfigKey.of(key));
+  }
+
+  @Override
+  public final boolean contains(final ConfigKey key) {
     reloadIfNeeded();
-    final String finalKey = (this.pathPrefix == null) ? key : this.pathPrefix + "." + key;
-    return this.fileData.containsKey(finalKey);
+    return this.fileData.containsKey(withPrefix(key));
   }
 
   @Override
@@ -186,9 +253,34 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
 
   @Override
   public final synchronized void remove(final String key) {
+    remove(ConfigKey.of(key));
+  }
+
+  @Override
+  public final synchronized void remove(final ConfigKey key) {
+    reloadIfNeeded();
+    this.fileData.remove(withPrefix(key));
+    markDirty();
+  }
+
+  /**
+   * Apply many changes with one reload check and one write. Works with every method that changes the data,
+   * including nested sections and batches. Other threads can't change the file while the batch is applied.
+   *
+   * @param changes Applies the changes to this file
+   */
+  @Override
+  public final synchronized void batch(@NonNull final Consumer<DataStorage> changes) {
     reloadIfNeeded();
-    this.fileData.remove(key);
-    write();
+    this.batchDepth++;
+    try {
+      changes.accept(this);
+    } finally {
+      if (--this.batchDepth == 0 && this.batchChanged) {
+        this.batchChanged = false;
+        markDirty();
+      }
+    }
   }
 
   // ----------------------------------------------------------------------------------------------------
@@ -200,9 +292,9 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
    *
    * @param map Map to insert.
    */
-  public final void putAll(final Map<String, Object> map) {
+  public final synchronized void putAll(final Map<String, Object> map) {
     this.fileData.putAll(map);
-    write();
+    markDirty();
   }
 
   /**
@@ -224,11 +316,11 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     return result;
   }
 
-  public void removeAll(final String... keys) {
+  public synchronized void removeAll(final String... keys) {
     for (final String key : keys) {
-      this.fileData.remove(key);
+      this.fileData.remove(withPrefix(ConfigKey.of(key)));
     }
-    write();
+    markDirty();
   }
 
   // ----------------------------------------------------------------------------------------------------
@@ -239,7 +331,7 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     addDefaultsFromFileData(new FileData(mapWithDefaults, this.dataType));
   }
 
-  public final void addDefaultsFromFileData(@NonNull final FileData newData) {
+  public final synchronized void addDefaultsFromFileData(@NonNull final FileData newData) {
     reloadIfNeeded();
 
     // Creating & setting defaults
@@ -249,7 +341,7 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
       }
     }
 
-    write();
+    markDirty();
   }
 
   public final void addDefaultsFromFlatFile(@NonNull final FlatFile flatFile) {
@@ -275,15 +367,191 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     Files.write(this.file.toPath(), result);
   }
 
+  /**
+   * Write the data to the file. Without a write delay the data is written while holding the monitor of the
+   * file. With a write delay it is copied while holding the monitor and written after releasing it, so other
+   * threads can keep changing the file while the background writer writes it. A copy that is older than the
+   * one already written is dropped. If the write fails the file stays dirty so that it is written again.
+   */
   public void write() {
+    if (this.writeDelay <= 0) {
+      synchronized (this) {
+        clearDirty();
+        final long version = ++this.snapshotVersion;
+        boolean done = false;
+        try {
+          synchronized (this.writeLock) {
+            this.writtenVersion = version;
+            done = writeData(getFileData());
+          }
+        } finally {
+          if (!done) {
+            restoreDirty();
+          }
+        }
+      }
+      return;
+    }
+    final FileData snapshot;
+    final long version;
+    synchronized (this) {
+      clearDirty();
+      snapshot = getFileData().copy();
+      version = ++this.snapshotVersion;
+    }
+    boolean done = false;
+    try {
+      synchronized (this.writeLock) {
+        if (version < this.writtenVersion) {
+          // A newer copy was written already
+          done = true;
+          return;
+        }
+        this.writtenVersion = version;
+        done = writeData(snapshot);
+      }
+    } finally {
+      // Outside of the write lock as the direct writes lock the file before the write lock
+      if (!done) {
+        restoreDirty();
+      }
+    }
+  }
+
+  /**
+   * @param data The data to write
+   * @return Whether the data was written, false if an IOException occurred
+   */
+  private boolean writeData(final FileData data) {
     try {
-      write(this.fileData);
+      write(data);
     } catch (final IOException ex) {
       System.err.println("Exception writing to file '" + getName() + "'");
       System.err.println("In '" + FileUtils.getParentDirPath(this.file) + "'");
       ex.printStackTrace();
+      return false;
     }
     this.lastLoaded = System.currentTimeMillis();
+    return true;
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Write-behind
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * Set how long changes may be kept in memory before they are written. With a delay every change only
+   * marks the file as dirty and it is written at most once per delay on a background thread, or when
+   * calling {@link #flush()} or {@link #flushAll()}. The file isn't reloaded while it is dirty.
+   *
+   * <p>Dirty files are flushed when the plugin that contains this library is disabled and when the JVM
+   * shuts down, see {@link #flushAll()}.
+   *
+   * @param writeDelay The delay in milliseconds, 0 to write on every change
+   */
+  public final void setWriteDelay(final long writeDelay) {
+    Valid.checkBoolean(writeDelay >= 0, "Write delay mustn't be negative");
+    this.writeDelay = writeDelay;
+    if (writeDelay == 0) {
+      flush();
+    } else {
+      registerFlushHooks();
+    }
+  }
+
+  /**
+   * Write the file now if it has changes that weren't written yet
+   */
+  public final void flush() {
+    if (this.dirty) {
+      write();
+    }
+  }
+
+  /**
+   * Write all files that have changes which weren't written yet. Called when the plugin that contains this
+   * library is disabled and when the JVM shuts down.
+   */
+  public static void flushAll() {
+    final List<FlatFile> dirtyFiles;
+    synchronized (DIRTY_FILES) {
+      dirtyFiles = new ArrayList<>(DIRTY_FILES);
+    }
+    for (final FlatFile flatFile : dirtyFiles) {
+      flatFile.flush();
+    }
+  }
+
+  /**
+   * @return The amount of changes that didn't need their own write as the file was already dirty or they were part of a batch
+   */
+  public final long getMergedWrites() {
+    return this.mergedWrites.get();
+  }
+
+  /**
+   * Write the changes right away or, if a write delay is set, schedule the write
+   */
+  protected final synchronized void markDirty() {
+    if (this.batchDepth > 0) {
+      // Written once the batch is done
+      if (this.batchChanged) {
+        this.mergedWrites.incrementAndGet();
+      }
+      this.batchChanged = true;
+      return;
+    }
+    if (this.writeDelay <= 0) {
+      write();
+      return;
+    }
+    if (this.dirty) {
+      this.mergedWrites.incrementAndGet();
+      return;
+    }
+    setDirty();
+  }
+
+  /**
+   * Mark the file as dirty again after its changes couldn't be written, so that it isn't reloaded and
+   * the changes are written again with the next flush
+   */
+  private synchronized void restoreDirty() {
+    if (!this.dirty) {
+      setDirty();
+    }
+  }
+
+  private void setDirty() {
+    this.dirty = true;
+    DIRTY_FILES.add(this);
+    if (this.writeDelay > 0) {
+      this.scheduledFlush = WRITER.schedule(this::flush, this.writeDelay, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static void registerFlushHooks() {
+    if (FLUSH_HOOKS_REGISTERED.getAndSet(true)) {
+      return;
+    }
+    Runtime.getRuntime().addShutdownHook(new Thread(FlatFile::flushAll, "FlatFile-Flush"));
+    try {
+      ConfigAPI.flushOnDisable(JavaPlugin.getProvidingPlugin(FlatFile.class));
+    } catch (final RuntimeException | LinkageError ex) {
+      // Not loaded by a plugin or outside of a server, only the shutdown hook flushes the files
+    }
+  }
+
+  private void clearDirty() {
+    if (!this.dirty) {
+      return;
+    }
+    this.dirty = false;
+    DIRTY_FILES.remove(this);
+    if (this.scheduledFlush != null) {
+      this.scheduledFlush.cancel(false);
+      this.scheduledFlush = null;
+    }
   }
 
   public final boolean hasChanged() {
@@ -309,9 +577,9 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     }
   }
 
-  public final void clear() {
+  public final synchronized void clear() {
     this.fileData.clear();
-    write();
+    markDirty();
   }
 
   public final void clearPathPrefix() {
@@ -322,6 +590,10 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
   // Internal stuff
   // ----------------------------------------------------------------------------------------------------
 
+  private ConfigKey withPrefix(final ConfigKey key) {
+    return this.pathPrefix == null ? key : ConfigKey.of(this.pathPrefix).resolve(key);
+  }
+
   protected final void reloadIfNeeded() {
     if (shouldReload()) {
       forceReload();
@@ -331,6 +603,10 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
   // Should the file be re-read before the next get() operation?
   // Can be used as utility method for implementations of FlatFile
   protected boolean shouldReload() {
+    if (this.dirty || this.batchDepth > 0) {
+      // Reloading would drop the changes that weren't written yet
+      return false;
+    }
     switch (this.reloadSettings) {
       case AUTOMATICALLY:
         return true;
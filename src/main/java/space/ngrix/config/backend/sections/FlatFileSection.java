@@ -1,8 +1,10 @@
 package space.ngrix.config.backend.sections;
 
+import space.ngrix.config.backend.internal.ConfigKey;
 import space.ngrix.config.backend.internal.DataStorage;
 import space.ngrix.config.backend.internal.FlatFile;
 import java.util.Set;
+import java.util.function.Consumer;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -11,6 +13,7 @@ public class FlatFileSection implements DataStorage {
 
   protected final FlatFile flatFile;
   @Getter private final String pathPrefix;
+  private ConfigKey prefixKey;
   
   public FlatFileSection getSection(final String pathPrefix) {
     return new FlatFileSection(this.flatFile, createFinalKey(pathPrefix));
@@ -46,6 +49,11 @@ public class FlatFileSection implements DataStorage {
     flatFile.set(createFinalKey(key), value);
   }
 
+  @Override
+  public void batch(final Consumer<DataStorage> changes) {
+    flatFile.batch(storage -> changes.accept(this));
+  }
+
   @Override
   public boolean contains(final String key) {
     return flatFile.contains(createFinalKey(key));
@@ -61,7 +69,38 @@ public class FlatFileSection implements DataStorage {
     return flatFile.getEnum(createFinalKey(key), enumType);
   }
 
+  @Override
+  public void remove(final ConfigKey key) {
+    flatFile.remove(createFinalKey(key));
+  }
+
+  @Override
+  public void set(final ConfigKey key, final Object value) {
+    flatFile.set(createFinalKey(key), value);
+  }
+
+  @Override
+  public boolean contains(final ConfigKey key) {
+    return flatFile.contains(createFinalKey(key));
+  }
+
+  @Override
+  public Object get(final ConfigKey key) {
+    return flatFile.get(createFinalKey(key));
+  }
+
   private String createFinalKey(final String key) {
-    return pathPrefix == null || pathPrefix.isEmpty() ? key : pathPrefix + "." + key;
+    return pathPrefix == null || pathPrefix.isEmpty() ? key : getPrefixKey().resolve(key).toString();
+  }
+
+  private ConfigKey createFinalKey(final ConfigKey key) {
+    return pathPrefix == null || pathPrefix.isEmpty() ? key : getPrefixKey().resolve(key);
+  }
+
+  private ConfigKey getPrefixKey() {
+    if (prefixKey == null) {
+      prefixKey = ConfigKey.of(pathPrefix);
+    }
+    return prefixKey;
   }
 }
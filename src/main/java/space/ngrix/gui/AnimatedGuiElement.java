@@ -0,0 +1,150 @@
+package space.ngrix.gui;
+
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents an element in a gui that cycles through a list of frames. The frames are advanced by the
+ * animator of the plugin every tick while somebody is viewing the GUI and only the slots of this element are
+ * redrawn when the frame changes. Animations pause while nobody has the GUI open.
+ */
+public class AnimatedGuiElement extends GuiElement {
+    private final List<GuiElement> frames;
+    private int period;
+    private int frame = 0;
+    private int ticks = 0;
+    private long lastTick = -1;
+    private long changedTick = -1;
+
+    /**
+     * An element that cycles through a list of frames
+     * @param slotChar  The character to replace in the gui setup string
+     * @param period    The amount of ticks that each frame is displayed
+     * @param frames    The elements that should be displayed after each other
+     * @throws IllegalArgumentException Thrown if the period is below 1 or there are no frames
+     */
+    public AnimatedGuiElement(char slotChar, int period, GuiElement... frames) throws IllegalArgumentException {
+        this(slotChar, null, period, frames);
+    }
+
+    /**
+     * An element that cycles through a list of frames
+     * @param slotChar  The character to replace in the gui setup string
+     * @param action    The action to run when the player clicks on this element, if null the action of the current frame is used
+     * @param period    The amount of ticks that each frame is displayed
+     * @param frames    The elements that should be displayed after each other
+     * @throws IllegalArgumentException Thrown if the period is below 1 or there are no frames
+     */
+    public AnimatedGuiElement(char slotChar, Action action, int period, GuiElement... frames) throws IllegalArgumentException {
+        super(slotChar, action);
+        if (frames.length == 0) {
+            throw new IllegalArgumentException("You need to add at least one frame!");
+        }
+        setPeriod(period);
+        List<GuiElement> frameList = new ArrayList<>();
+        Collections.addAll(frameList, frames);
+        this.frames = Collections.unmodifiableList(frameList);
+    }
+
+    @Override
+    public ItemStack getItem(HumanEntity who, int slot) {
+        GuiElement element = getFrame();
+        return element != null ? element.getItem(who, slot) : null;
+    }
+
+    @Override
+    ItemStack getDrawItem(HumanEntity who, int slot) {
+        GuiElement element = getFrame();
+        return element != null ? element.getDrawItem(who, slot) : null;
+    }
+
+    @Override
+    public Action getAction(HumanEntity who) {
+        Action action = super.getAction(who);
+        if (action == null) {
+            GuiElement element = getFrame();
+            return element != null ? element.getAction(who) : null;
+        }
+        return action;
+    }
+
+    @Override
+    public void setGui(InventoryGui gui) {
+        super.setGui(gui);
+        for (GuiElement element : frames) {
+            if (element != null) {
+                element.setGui(gui);
+            }
+        }
+    }
+
+    @Override
+    public void setSlots(int[] slots) {
+        super.setSlots(slots);
+        for (GuiElement element : frames) {
+            if (element != null) {
+                element.setSlots(slots);
+            }
+        }
+    }
+
+    /**
+     * Advance the animation by one tick. Calling this multiple times for the same tick doesn't advance it
+     * again but returns the same result, e.g. when it is ticked for every viewer.
+     * @param tick  The number of the animator's tick
+     * @return Whether or not the displayed frame changed on this tick
+     */
+    boolean tick(long tick) {
+        if (lastTick == tick) {
+            return changedTick == tick;
+        }
+        lastTick = tick;
+        if (frames.size() < 2 || ++ticks < period) {
+            return false;
+        }
+        ticks = 0;
+        frame = (frame + 1) % frames.size();
+        changedTick = tick;
+        return true;
+    }
+
+    /**
+     * Get the frame that is currently displayed
+     * @return The current frame
+     */
+    public GuiElement getFrame() {
+        return frames.get(frame);
+    }
+
+    /**
+     * Get all frames of this element
+     * @return An immutable list of the frames
+     */
+    public List<GuiElement> getFrames() {
+        return frames;
+    }
+
+    /**
+     * Get the amount of ticks that each frame is displayed
+     * @return The period in ticks
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Set the amount of ticks that each frame is displayed
+     * @param period    The period in ticks
+     * @throws IllegalArgumentException Thrown if the period is below 1
+     */
+    public void setPeriod(int period) throws IllegalArgumentException {
+        if (period < 1) {
+            throw new IllegalArgumentException("The period needs to be at least one tick!");
+        }
+        this.period = period;
+    }
+}
@@ -0,0 +1,184 @@
+package space.ngrix.gui;
+
+import org.bukkit.entity.HumanEntity;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Represents a {@link DynamicGuiElement} whose query runs asynchronously. While the query is running
+ * the previously queried element or, if there is none yet, a loading element is displayed.
+ * When the query completes the result is applied on the player's thread and only the slots of this element are redrawn.
+ * Results for players that closed the GUI in the meantime are dropped.
+ */
+public class AsyncDynamicGuiElement extends DynamicGuiElement {
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private GuiElement loadingElement;
+    private Executor executor = null;
+    private final Map<UUID, Long> runningQueries = new ConcurrentHashMap<>();
+
+    /**
+     * Represents an element in a gui that will query all it's data asynchronously when drawn.
+     * @param slotChar          The character to replace in the gui setup string
+     * @param loadingElement    The element to display while the data is loaded, can be null
+     * @param query             Query the element data, this should return an element with the information.
+     *                          This is not called on the main thread!
+     */
+    public AsyncDynamicGuiElement(char slotChar, GuiElement loadingElement, Supplier<GuiElement> query) {
+        this(slotChar, loadingElement, (h) -> query.get());
+    }
+
+    /**
+     * Represents an element in a gui that will query all it's data asynchronously when drawn.
+     * @param slotChar          The character to replace in the gui setup string
+     * @param loadingElement    The element to display while the data is loaded, can be null
+     * @param query             Query the element data, this should return an element with the information and
+     *                          handle null players properly. This is not called on the main thread!
+     */
+    public AsyncDynamicGuiElement(char slotChar, GuiElement loadingElement, Function<HumanEntity, GuiElement> query) {
+        super(slotChar, query);
+        this.loadingElement = loadingElement;
+    }
+
+    /**
+     * Start querying this element's state for a certain player. The returned entry is the one that is displayed
+     * until the query completes. No new query is started while one is still running for the player, or for
+     * anyone if the scope is {@link Scope#SHARED}, so queries that are slower than the refresh interval still land.
+     * @param player The player for whom to update the element
+     */
+    @Override
+    public CacheEntry update(HumanEntity player) {
+        UUID key = getCacheKey(player);
+        CacheEntry previous = getCacheEntry(player);
+        boolean shared = getScope() == Scope.SHARED;
+        long generation = GENERATION.incrementAndGet();
+        if (runningQueries.putIfAbsent(key, generation) != null) {
+            // The result of the query that is already running will be applied
+            return previous != null ? previous : cache(player, prepare(loadingElement));
+        }
+        Runnable query = () -> {
+            GuiElement element;
+            try {
+                element = queryElement(shared ? null : player);
+            } catch (Throwable t) {
+                gui.getPlugin().getLogger().log(Level.SEVERE, "Exception while querying async dynamic element " + getSlotChar() + " in GUI " + gui.getTitle() + (player != null ? " for " + player.getName() : ""), t);
+                runningQueries.remove(key, generation);
+                return;
+            }
+            if (player != null) {
+                gui.runTask(player, () -> apply(player, key, generation, element));
+            } else {
+                gui.runTask(() -> apply(null, key, generation, element));
+            }
+        };
+        if (executor != null) {
+            executor.execute(query);
+        } else {
+            gui.runTaskAsync(query);
+        }
+
+        return previous != null ? previous : cache(player, prepare(loadingElement));
+    }
+
+    private void apply(HumanEntity player, UUID key, long generation, GuiElement element) {
+        if (!runningQueries.remove(key, generation)) {
+            // A newer query was started or the player closed the GUI
+            return;
+        }
+        if (getScope() == Scope.SHARED) {
+            cache(player, element);
+            gui.requestDrawSlots(getSlots());
+            return;
+        }
+        if (gui.getInventory(player) == null) {
+            return;
+        }
+        cache(player, element);
+        gui.drawSlots(player, getSlots());
+    }
+
+    private GuiElement prepare(GuiElement element) {
+        if (element != null) {
+            element.setGui(gui);
+            element.setSlots(slots);
+        }
+        return element;
+    }
+
+    @Override
+    public GuiElement removeCachedElement(HumanEntity who) {
+        if (getScope() == Scope.PLAYER) {
+            runningQueries.remove(who.getUniqueId());
+        }
+        return super.removeCachedElement(who);
+    }
+
+    /**
+     * Remove the cached elements of all players and forget the running queries so that their results are
+     * dropped and the next update starts new queries
+     */
+    @Override
+    public void clearCache() {
+        runningQueries.clear();
+        super.clearCache();
+    }
+
+    /**
+     * Check whether or not the cached element of a player should be refreshed. While a query is running
+     * the element doesn't need a refresh as the result of that query will be applied.
+     * @param who The player to check
+     * @return <code>true</code> if no query is running and the cached element is older than the refresh interval
+     */
+    @Override
+    public boolean needsRefresh(HumanEntity who) {
+        return !isLoading(who) && super.needsRefresh(who);
+    }
+
+    /**
+     * Check whether or not a query is currently running for a player
+     * @param who   The player to check
+     * @return Whether or not the element is loading for that player
+     */
+    public boolean isLoading(HumanEntity who) {
+        return runningQueries.containsKey(getCacheKey(who));
+    }
+
+    /**
+     * Get the element that is displayed while the data is loaded
+     * @return The loading element or null
+     */
+    public GuiElement getLoadingElement() {
+        return loadingElement;
+    }
+
+    /**
+     * Set the element that is displayed while the data is loaded
+     * @param loadingElement The loading element or null
+     */
+    public void setLoadingElement(GuiElement loadingElement) {
+        this.loadingElement = loadingElement;
+    }
+
+    /**
+     * Get the executor that the queries run on
+     * @return The executor or null if the plugin's async scheduler is used
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Set the executor that the queries should run on, e.g. a pool for database queries
+     * @param executor The executor or null to use the plugin's async scheduler
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+}
@@ -0,0 +1,148 @@
+package space.ngrix.gui;
+
+import org.bukkit.entity.HumanEntity;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how often each player can run click actions. Uses a token bucket in the form of the generic cell
+ * rate algorithm so that every player only needs two numbers of state and checking a click doesn't allocate.<br>
+ * A limiter can be set for a whole {@link InventoryGui} and for single {@link GuiElement}s, it can also be shared
+ * between multiple GUIs to limit the clicks of a player across them. Dropped clicks are cancelled without running the action.
+ */
+public class ClickLimiter {
+    private static final int TAT = 0;
+    private static final int LAST_CLICK = 1;
+
+    private final long interval;
+    private final long tolerance;
+    private long debounce = 0;
+    private final Map<UUID, long[]> states = new ConcurrentHashMap<>();
+    private final AtomicLong droppedClicks = new AtomicLong();
+
+    /**
+     * Create a new limiter
+     * @param clicksPerSecond   The amount of clicks per second that a player can sustain
+     * @param burst             The amount of clicks that a player can do right after each other before being limited
+     * @throws IllegalArgumentException Thrown if the rate isn't positive or the burst is below 1
+     */
+    public ClickLimiter(double clicksPerSecond, int burst) throws IllegalArgumentException {
+        if (clicksPerSecond <= 0) {
+            throw new IllegalArgumentException("The rate needs to be positive!");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("The burst needs to be at least one click!");
+        }
+        this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / clicksPerSecond);
+        this.tolerance = interval * (burst - 1);
+    }
+
+    /**
+     * Check whether or not a click of a player is allowed and count it
+     * @param who   The player that clicked
+     * @return <code>true</code> if the action should run; <code>false</code> if the click should be dropped
+     */
+    public boolean tryClick(HumanEntity who) {
+        long[] state = getState(who);
+        long now = System.nanoTime();
+        synchronized (state) {
+            boolean allowed = allows(state, now);
+            // Every click restarts the debounce time, even a dropped one
+            state[LAST_CLICK] = now;
+            if (!allowed) {
+                droppedClicks.incrementAndGet();
+                return false;
+            }
+            state[TAT] = Math.max(state[TAT], now) + interval;
+            return true;
+        }
+    }
+
+    /**
+     * Check whether or not a click of a player would be allowed without counting it
+     * @param who   The player that wants to click
+     * @return <code>true</code> if {@link #tryClick(HumanEntity)} would let the click through right now
+     */
+    public boolean canClick(HumanEntity who) {
+        long[] state = states.get(who.getUniqueId());
+        if (state == null) {
+            return true;
+        }
+        long now = System.nanoTime();
+        synchronized (state) {
+            return allows(state, now);
+        }
+    }
+
+    /**
+     * Count a click that this limiter drops without checking it again, see {@link #canClick(HumanEntity)}.
+     * It restarts the debounce time like any other click but doesn't use up the rate.
+     * @param who   The player that clicked
+     */
+    void drop(HumanEntity who) {
+        long[] state = getState(who);
+        long now = System.nanoTime();
+        synchronized (state) {
+            state[LAST_CLICK] = now;
+        }
+        droppedClicks.incrementAndGet();
+    }
+
+    private long[] getState(HumanEntity who) {
+        long[] state = states.get(who.getUniqueId());
+        if (state == null) {
+            state = states.computeIfAbsent(who.getUniqueId(), id -> new long[]{Long.MIN_VALUE, Long.MIN_VALUE});
+        }
+        return state;
+    }
+
+    private boolean allows(long[] state, long now) {
+        long lastClick = state[LAST_CLICK];
+        if (debounce > 0 && lastClick != Long.MIN_VALUE && now - lastClick < TimeUnit.MILLISECONDS.toNanos(debounce)) {
+            // Clicks need to pause for the debounce time
+            return false;
+        }
+        return Math.max(state[TAT], now) - now <= tolerance;
+    }
+
+    /**
+     * Forget the state of a player, e.g. when they left the server
+     * @param who   The player to forget
+     */
+    public void forget(HumanEntity who) {
+        states.remove(who.getUniqueId());
+    }
+
+    /**
+     * Get the time that a player needs to stop clicking before a click is accepted again
+     * @return The debounce time in milliseconds, <code>0</code> if disabled
+     */
+    public long getDebounce() {
+        return debounce;
+    }
+
+    /**
+     * Set the time that a player needs to stop clicking before a click is accepted again.
+     * Every click during that time, even a dropped one, restarts it.
+     * @param debounce  The debounce time in milliseconds, <code>0</code> to disable it
+     * @throws IllegalArgumentException Thrown if the time is negative
+     */
+    public void setDebounce(long debounce) throws IllegalArgumentException {
+        if (debounce < 0) {
+            throw new IllegalArgumentException("The debounce time can't be negative!");
+        }
+        this.debounce = debounce;
+    }
+
+    /**
+     * Get the amount of clicks that were dropped by this limiter
+     * @return The amount of dropped clicks
+     */
+    public long getDroppedClicks() {
+        return droppedClicks.get();
+    }
+}
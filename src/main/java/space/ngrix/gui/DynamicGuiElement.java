@@ -38,9 +38,15 @@ import java.util.function.Supplier;
  * Represents an element in a gui that will query all it's data when drawn.
  */
 public class DynamicGuiElement extends GuiElement {
+    private static final UUID SHARED_KEY = new UUID(0, 0);
+
     private Function<HumanEntity, GuiElement> query;
+    private Scope scope = Scope.PLAYER;
+    private volatile int lastSharedUpdate = -1;
 
     private Map<UUID, CacheEntry> cachedElements = new ConcurrentHashMap<>();
+    private long expireAfterWrite = 0;
+    private long refreshAfterWrite = 0;
 
     /**
      * Represents an element in a gui that will query all it's data when drawn.
@@ -65,6 +71,12 @@ public class DynamicGuiElement extends GuiElement {
      * Query this element's state for every player who had it cached
      */
     public void update() {
+        if (scope == Scope.SHARED) {
+            if (!cachedElements.isEmpty()) {
+                update((HumanEntity) null);
+            }
+            return;
+        }
         for (UUID playerId : new ArrayList<>(cachedElements.keySet())) {
             Player p = gui.getPlugin().getServer().getPlayer(playerId);
             if (p != null && p.isOnline()) {
@@ -80,13 +92,51 @@ public class DynamicGuiElement extends GuiElement {
      * @param player The player for whom to update the element
      */
     public CacheEntry update(HumanEntity player) {
-        CacheEntry cacheEntry = new CacheEntry(queryElement(player));
-        if (cacheEntry.element instanceof DynamicGuiElement) {
-            ((DynamicGuiElement) cacheEntry.element).update(player);
-        } else if (cacheEntry.element instanceof GuiElementGroup) {
-            InventoryGui.updateElements(player, ((GuiElementGroup) cacheEntry.element).getElements());
+        if (scope == Scope.SHARED) {
+            return updateShared(player);
+        }
+        return cache(player, queryElement(player));
+    }
+
+    /**
+     * Query the shared element, this only happens once per tick no matter how many viewers update it
+     * @param player The player that triggered the update, only used to update children
+     */
+    private synchronized CacheEntry updateShared(HumanEntity player) {
+        int tick = gui.getPlugin().getServer().getCurrentTick();
+        CacheEntry cached = cachedElements.get(SHARED_KEY);
+        if (cached != null && lastSharedUpdate == tick) {
+            return cached;
+        }
+        lastSharedUpdate = tick;
+        return cache(player, queryElement(null));
+    }
+
+    /**
+     * Get the key under which the element of a player is cached
+     * @param who   The player
+     * @return The player's id or one shared key for all players if the scope is {@link Scope#SHARED}
+     */
+    protected UUID getCacheKey(HumanEntity who) {
+        return scope == Scope.SHARED || who == null ? SHARED_KEY : who.getUniqueId();
+    }
+
+    /**
+     * Cache an already queried element for a player and update its children
+     * @param player    The player for whom to cache the element
+     * @param element   The queried element, see {@link #queryElement(HumanEntity)}
+     * @return The new cache entry
+     */
+    protected CacheEntry cache(HumanEntity player, GuiElement element) {
+        CacheEntry cacheEntry = new CacheEntry(element);
+        if (player != null) {
+            if (cacheEntry.element instanceof DynamicGuiElement) {
+                ((DynamicGuiElement) cacheEntry.element).update(player);
+            } else if (cacheEntry.element instanceof GuiElementGroup) {
+                InventoryGui.updateElements(player, ((GuiElementGroup) cacheEntry.element).getElements());
+            }
         }
-        cachedElements.put(player.getUniqueId(), cacheEntry);
+        cachedElements.put(getCacheKey(player), cacheEntry);
         return cacheEntry;
     }
     
@@ -100,6 +150,12 @@ public class DynamicGuiElement extends GuiElement {
         GuiElement element = getCachedElement(who);
         return element != null ? element.getItem(who, slot) : null;
     }
+
+    @Override
+    ItemStack getDrawItem(HumanEntity who, int slot) {
+        GuiElement element = getCachedElement(who);
+        return element != null ? element.getDrawItem(who, slot) : null;
+    }
     
     @Override
     public Action getAction(HumanEntity who) {
@@ -144,19 +200,100 @@ public class DynamicGuiElement extends GuiElement {
      * @return The element that is currently cached
      */
     public GuiElement getCachedElement(HumanEntity who) {
-        CacheEntry cached = cachedElements.get(who.getUniqueId());
-        if (cached == null) {
+        CacheEntry cached = cachedElements.get(getCacheKey(who));
+        if (cached == null || isExpired(cached)) {
             cached = update(who);
         }
         return cached.getElement();
     }
 
+    /**
+     * Get the element that is cached for a player without querying a new one
+     * @param who The player to get the element for
+     * @return The cached element or <code>null</code> if there is none
+     */
+    GuiElement peekCachedElement(HumanEntity who) {
+        CacheEntry cached = cachedElements.get(getCacheKey(who));
+        return cached != null ? cached.getElement() : null;
+    }
+
+    private boolean isExpired(CacheEntry entry) {
+        return expireAfterWrite > 0 && System.currentTimeMillis() - entry.getCreated() >= expireAfterWrite;
+    }
+
+    /**
+     * Check whether or not the cached element of a player should be refreshed, see {@link #setRefreshAfterWrite(long)}
+     * @param who The player to check
+     * @return <code>true</code> if there is a cached element older than the refresh interval
+     */
+    public boolean needsRefresh(HumanEntity who) {
+        if (refreshAfterWrite <= 0) {
+            return false;
+        }
+        CacheEntry cached = cachedElements.get(getCacheKey(who));
+        return cached != null && System.currentTimeMillis() - cached.getCreated() >= refreshAfterWrite;
+    }
+
+    /**
+     * Remove the cached elements of all players
+     */
+    public void clearCache() {
+        cachedElements.clear();
+    }
+
+    /**
+     * Get the time after which a cached element is queried again when it is accessed
+     * @return The time in milliseconds, 0 if cached elements don't expire
+     */
+    public long getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    /**
+     * Set the time after which a cached element is queried again when it is accessed
+     * @param expireAfterWrite  The time in milliseconds, 0 if cached elements shouldn't expire
+     */
+    public void setExpireAfterWrite(long expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    /**
+     * Get the interval in which the element is refreshed for the players currently viewing the GUI
+     * @return The interval in milliseconds, 0 if it is only updated when the GUI is drawn
+     */
+    public long getRefreshAfterWrite() {
+        return refreshAfterWrite;
+    }
+
+    /**
+     * Set the interval in which the element is refreshed for the players currently viewing the GUI.
+     * Refreshed elements will automatically redraw their slots. This is checked every few ticks
+     * so very small intervals are not exact.
+     * @param refreshAfterWrite The interval in milliseconds, 0 to only update when the GUI is drawn
+     */
+    public void setRefreshAfterWrite(long refreshAfterWrite) {
+        this.refreshAfterWrite = refreshAfterWrite;
+    }
+
+    /**
+     * Get the cache entry of a player without querying the element
+     * @param who The player to get the entry for
+     * @return The cache entry or null if nothing is cached for that player
+     */
+    protected CacheEntry getCacheEntry(HumanEntity who) {
+        return cachedElements.get(getCacheKey(who));
+    }
+
     /**
      * Remove the cached element if the player has one.
+     * Shared elements are kept as other players might still view them, use {@link #clearCache()} for these.
      * @param who The player to remove the cached element for
      * @return The element that was cached or null if none was cached
      */
     public GuiElement removeCachedElement(HumanEntity who) {
+        if (scope == Scope.SHARED) {
+            return null;
+        }
         CacheEntry cached = cachedElements.remove(who.getUniqueId());
         return cached != null ? cached.getElement() : null;
     }
@@ -167,10 +304,44 @@ public class DynamicGuiElement extends GuiElement {
      * @return  The timestamp from when it was last cached or -1 if it wasn't cached
      */
     public long getLastCached(HumanEntity who) {
-        CacheEntry cached = cachedElements.get(who.getUniqueId());
+        CacheEntry cached = cachedElements.get(getCacheKey(who));
         return cached != null ? cached.getCreated() : -1;
     }
 
+    /**
+     * Get the scope in which the queried element is cached
+     * @return The scope of this element
+     */
+    public Scope getScope() {
+        return scope;
+    }
+
+    /**
+     * Set the scope in which the queried element is cached
+     * @param scope The scope of this element
+     */
+    public void setScope(Scope scope) {
+        if (this.scope != scope) {
+            this.scope = scope;
+            clearCache();
+            if (gui != null) {
+                gui.invalidatePersonalized();
+            }
+        }
+    }
+
+    public enum Scope {
+        /**
+         * The element is queried and cached for each player separately
+         */
+        PLAYER,
+        /**
+         * The element is queried once with a <code>null</code> player and shown to every player.
+         * It is queried at most once per tick regardless of how many players update it.
+         */
+        SHARED;
+    }
+
     public class CacheEntry {
         private final GuiElement element;
         private final long created = System.currentTimeMillis();
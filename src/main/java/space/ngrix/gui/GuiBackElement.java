@@ -45,6 +45,7 @@ public class GuiBackElement extends StaticGuiElement {
         this.close = close;
 
         setAction(click -> {
+            click.markUnchanged();
             if (canGoBack(click.getWhoClicked())) {
                 InventoryGui.goBack(click.getWhoClicked());
             } else if (close) {
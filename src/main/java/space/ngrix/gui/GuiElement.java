@@ -27,13 +27,18 @@ import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryInteractEvent;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.Arrays;
+import java.util.BitSet;
+
 /**
  * Represents an element in a gui
  */
 public abstract class GuiElement {
     private final char slotChar;
     private Action action;
+    private ClickLimiter clickLimiter = null;
     protected int[] slots = new int[0];
+    private int[] slotIndexes = new int[0];
     protected InventoryGui gui;
 
     /**
@@ -70,6 +75,17 @@ public abstract class GuiElement {
      */
     public abstract ItemStack getItem(HumanEntity who, int slot);
 
+    /**
+     * Get the item to draw into an inventory. Inventories copy the items that are set into them, so elements
+     * can return an item that is cached and shared with other draws here instead of a copy.
+     * @param who   The player who views the page
+     * @param slot  The slot to get the item for
+     * @return      The ItemStack that is displayed as this element, it must not be modified
+     */
+    ItemStack getDrawItem(HumanEntity who, int slot) {
+        return getItem(who, slot);
+    }
+
     /**
      * Get the action that is executed when clicking on this element
      * @param who   The player who views the page
@@ -88,6 +104,22 @@ public abstract class GuiElement {
         this.action = action;
     }
 
+    /**
+     * Get the limiter for the clicks on this element
+     * @return The click limiter or <code>null</code> if clicks aren't limited
+     */
+    public ClickLimiter getClickLimiter() {
+        return clickLimiter;
+    }
+
+    /**
+     * Set a limiter for the clicks on this element. Clicks that exceed the limit are cancelled without running the action.
+     * @param clickLimiter  The click limiter or <code>null</code> to not limit clicks
+     */
+    public void setClickLimiter(ClickLimiter clickLimiter) {
+        this.clickLimiter = clickLimiter;
+    }
+
     /**
      * Get the indexes of the lots that this element is displayed in
      * @return An array of the lost indexes
@@ -102,6 +134,18 @@ public abstract class GuiElement {
      */
     public void setSlots(int[] slots) {
         this.slots = slots;
+        int max = -1;
+        for (int slot : slots) {
+            max = Math.max(max, slot);
+        }
+        int[] slotIndexes = new int[max + 1];
+        Arrays.fill(slotIndexes, -1);
+        for (int i = slots.length - 1; i >= 0; i--) {
+            if (slots[i] >= 0) {
+                slotIndexes[slots[i]] = i;
+            }
+        }
+        this.slotIndexes = slotIndexes;
     }
 
     /**
@@ -120,12 +164,11 @@ public abstract class GuiElement {
      * @return              The index in the list of slots that this id has or <code>-1</code> if it isn't in that list
      */
     public int getSlotIndex(int slot, int pageNumber) {
-        for (int i = 0; i < slots.length; i++) {
-            if (slots[i] == slot) {
-                return i + slots.length * pageNumber;
-            }
+        int[] slotIndexes = this.slotIndexes;
+        if (slot < 0 || slot >= slotIndexes.length || slotIndexes[slot] < 0) {
+            return -1;
         }
-        return -1;
+        return slotIndexes[slot] + slots.length * pageNumber;
     }
 
     /**
@@ -162,6 +205,7 @@ public abstract class GuiElement {
         private ItemStack cursor;
         private final GuiElement element;
         private final InventoryInteractEvent event;
+        private BitSet invalidatedSlots = null;
 
         public Click(InventoryGui gui, int slot, ClickType clickType, ItemStack cursor, GuiElement element, InventoryInteractEvent event) {
             this.gui = gui;
@@ -231,5 +275,48 @@ public abstract class GuiElement {
         public InventoryGui getGui() {
             return gui;
         }
+
+        /**
+         * Mark that this click didn't change anything that the other viewers of the GUI can see.
+         * Slots or elements that changed can still be added with the invalidate methods.
+         */
+        public void markUnchanged() {
+            if (invalidatedSlots == null) {
+                invalidatedSlots = new BitSet();
+            }
+        }
+
+        /**
+         * Mark slots as changed by this click. Once this was called only the invalidated slots will be
+         * redrawn for the other viewers of the GUI instead of redrawing the whole GUI for each of them.
+         * @param slots The slots whose items changed
+         */
+        public void invalidate(int... slots) {
+            markUnchanged();
+            for (int slot : slots) {
+                if (slot >= 0) {
+                    invalidatedSlots.set(slot);
+                }
+            }
+        }
+
+        /**
+         * Mark all slots of elements as changed by this click, see {@link #invalidate(int...)}
+         * @param elements  The elements whose items changed
+         */
+        public void invalidate(GuiElement... elements) {
+            markUnchanged();
+            for (GuiElement element : elements) {
+                invalidate(element.getSlots());
+            }
+        }
+
+        /**
+         * Get the slots that were marked as changed by this click
+         * @return The invalidated slots or <code>null</code> if the action didn't specify what changed
+         */
+        public int[] getInvalidatedSlots() {
+            return invalidatedSlots != null ? invalidatedSlots.stream().toArray() : null;
+        }
     }
 }
@@ -28,15 +28,31 @@ import org.bukkit.inventory.ItemStack;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
 
 /**
  * Represents a group of multiple elements. Will be left-aligned by default.
  */
 public class GuiElementGroup extends GuiElement {
+    private static final int MAX_CACHED_PAGES = 8;
+
     private List<GuiElement> elements = new ArrayList<>();
     private GuiElement filler = null;
     private Alignment alignment = Alignment.LEFT;
+    private IntSupplier sizeProvider = null;
+    private PageFetcher pageFetcher = null;
+    private int cachedSize = -1;
+    private int[] lineWidths = null;
+    private int[] linePositions = null;
+    private final Map<Integer, List<GuiElement>> cachedPages = new LinkedHashMap<Integer, List<GuiElement>>(MAX_CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<GuiElement>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
     
     /**
      * A group of elements
@@ -63,11 +79,18 @@ public class GuiElementGroup extends GuiElement {
         }
         return null;
     }
+
+    @Override
+    ItemStack getDrawItem(HumanEntity who, int slot) {
+        GuiElement element = getElement(slot, gui.getPageNumber(who));
+        return element != null ? element.getDrawItem(who, slot) : null;
+    }
     
     @Override
     public void setGui(InventoryGui gui) {
         super.setGui(gui);
-        for (GuiElement element : elements) {
+        lineWidths = null;
+        for (GuiElement element : getElements()) {
             if (element != null) {
                 element.setGui(gui);
             }
@@ -80,6 +103,11 @@ public class GuiElementGroup extends GuiElement {
     @Override
     public void setSlots(int[] slots) {
         super.setSlots(slots);
+        lineWidths = null;
+        if (pageFetcher != null) {
+            // The page size might have changed
+            invalidateData();
+        }
         for (GuiElement element : elements) {
             if (element != null) {
                 element.setSlots(slots);
@@ -92,11 +120,17 @@ public class GuiElementGroup extends GuiElement {
      * @param element   The element to add
      */
     public void addElement(GuiElement element){
+        if (pageFetcher != null) {
+            throw new IllegalStateException("Elements can't be added to a group that uses a data source!");
+        }
         elements.add(element);
         if (element != null) {
             element.setGui(gui);
             element.setSlots(slots);
         }
+        if (gui != null) {
+            gui.invalidatePersonalized();
+        }
     }
     
     /**
@@ -135,48 +169,78 @@ public class GuiElementGroup extends GuiElement {
      * @return              The GuiElement in that slot or <code>null</code>
      */
     public GuiElement getElement(int slot, int pageNumber) {
-        if (elements.isEmpty()) {
+        int size = size();
+        if (size == 0) {
             return null;
         }
-        int index = getSlotIndex(slot, slots.length < elements.size() ? pageNumber : 0);
+        int index = getSlotIndex(slot, slots.length < size ? pageNumber : 0);
         if (index > -1) {
             if (alignment == Alignment.LEFT) {
-                if (index < elements.size()) {
-                    return elements.get(index);
+                if (index < size) {
+                    return getElementAt(index);
                 }
             } else {
                 int lineWidth = getLineWidth(slot);
                 int linePosition = getLinePosition(slot);
-                if (elements.size() - index > lineWidth - linePosition) {
-                    return elements.get(index);
+                if (size - index > lineWidth - linePosition) {
+                    return getElementAt(index);
                 }
-                int rest = elements.size() - (index - linePosition);
+                int rest = size - (index - linePosition);
                 int blankBefore = alignment == Alignment.CENTER ? (lineWidth - rest) / 2 : lineWidth - rest;
-                if (linePosition < blankBefore || index - blankBefore >= elements.size()) {
+                if (linePosition < blankBefore || index - blankBefore >= size) {
                     return filler;
                 }
-                return elements.get(index - blankBefore);
+                return getElementAt(index - blankBefore);
             }
         }
         return filler;
     }
 
+    /**
+     * Get the element at a certain index of this group. If the group uses a data source then
+     * this fetches the page that contains the index if it isn't cached already.
+     * @param index The index of the element
+     * @return      The element at that index or <code>null</code> if there is none
+     */
+    public GuiElement getElementAt(int index) {
+        if (index < 0) {
+            return null;
+        }
+        if (pageFetcher == null) {
+            return index < elements.size() ? elements.get(index) : null;
+        }
+        int pageSize = Math.max(slots.length, 1);
+        List<GuiElement> page = getPage(index / pageSize, pageSize);
+        int pageIndex = index % pageSize;
+        return pageIndex < page.size() ? page.get(pageIndex) : null;
+    }
+
+    private List<GuiElement> getPage(int page, int pageSize) {
+        synchronized (cachedPages) {
+            List<GuiElement> elements = cachedPages.get(page);
+            if (elements == null) {
+                List<GuiElement> fetched = pageFetcher.fetch(page * pageSize, pageSize);
+                elements = fetched != null ? new ArrayList<>(fetched) : Collections.emptyList();
+                for (GuiElement element : elements) {
+                    if (element != null) {
+                        element.setGui(gui);
+                        element.setSlots(slots);
+                    }
+                }
+                cachedPages.put(page, elements);
+            }
+            return elements;
+        }
+    }
+
     /**
      * Get the width of the line the slot is in
      * @param slot The slot
      * @return The width of the line in the GUI setup of this group
      */
     private int getLineWidth(int slot) {
-        int width = gui.getWidth();
-        int row = slot / width;
-
-        int amount = 0;
-        for (int s : slots) {
-            if (s >= row * width && s < (row + 1) * width) {
-                amount++;
-            }
-        }
-        return amount;
+        compileLines();
+        return lineWidths[slot];
     }
 
     /**
@@ -185,27 +249,52 @@ public class GuiElementGroup extends GuiElement {
      * @return The line position or -1 if not in its line. wat
      */
     private int getLinePosition(int slot) {
-        int width = gui.getWidth();
-        int row = slot / width;
+        compileLines();
+        return linePositions[slot];
+    }
 
-        int position = -1;
+    /**
+     * Compile the widths of the lines and the positions of the slots in their line
+     * so that they don't need to be calculated for every slot on every draw
+     */
+    private void compileLines() {
+        if (lineWidths != null) {
+            return;
+        }
+        int width = gui.getWidth();
+        int size = 0;
         for (int s : slots) {
-            if (s >= row * width && s < (row + 1) * width) {
-                position++;
-                if (s == slot) {
-                    return position;
-                }
-            }
+            size = Math.max(size, (s / width + 1) * width);
+        }
+        int[] widths = new int[size];
+        int[] positions = new int[size];
+        int[] rowAmounts = new int[size / width];
+        for (int s : slots) {
+            positions[s] = rowAmounts[s / width]++;
+        }
+        for (int s = 0; s < size; s++) {
+            widths[s] = rowAmounts[s / width];
         }
-        return position;
+        linePositions = positions;
+        lineWidths = widths;
     }
 
     /**
      * Get all elements of this group. This list is immutable, use {@link #addElement(GuiElement)}
      * and {@link #clearElements()} to modify the elements in this group.
+     * If the group uses a data source then this only contains the elements of the currently cached pages.
      * @return An immutable list of all elements in this group
      */
     public List<GuiElement> getElements() {
+        if (pageFetcher != null) {
+            List<GuiElement> loaded = new ArrayList<>();
+            synchronized (cachedPages) {
+                for (List<GuiElement> page : cachedPages.values()) {
+                    loaded.addAll(page);
+                }
+            }
+            return Collections.unmodifiableList(loaded);
+        }
         return Collections.unmodifiableList(elements);
     }
 
@@ -214,6 +303,48 @@ public class GuiElementGroup extends GuiElement {
      */
     public void clearElements() {
         elements.clear();
+        invalidateData();
+        if (gui != null) {
+            gui.invalidatePersonalized();
+        }
+    }
+
+    /**
+     * Let this group load its elements lazily from a data source instead of holding all of them.
+     * Only the pages that are actually displayed will be fetched and a few of them are cached.
+     * Use {@link #invalidateData()} when the data changed.
+     * @param sizeProvider  Provides the total amount of elements in the data source
+     * @param pageFetcher   Fetches the elements of a page
+     */
+    public void setDataSource(IntSupplier sizeProvider, PageFetcher pageFetcher) {
+        if ((sizeProvider == null) != (pageFetcher == null)) {
+            throw new IllegalArgumentException("Size provider and page fetcher need to be set both or neither!");
+        }
+        elements.clear();
+        this.sizeProvider = sizeProvider;
+        this.pageFetcher = pageFetcher;
+        invalidateData();
+        if (gui != null) {
+            gui.invalidatePersonalized();
+        }
+    }
+
+    /**
+     * Get whether or not this group loads its elements from a data source
+     * @return Whether or not a data source is set, see {@link #setDataSource(IntSupplier, PageFetcher)}
+     */
+    public boolean hasDataSource() {
+        return pageFetcher != null;
+    }
+
+    /**
+     * Drop the cached size and pages of the data source so that they are fetched again on the next draw
+     */
+    public void invalidateData() {
+        synchronized (cachedPages) {
+            cachedSize = -1;
+            cachedPages.clear();
+        }
     }
     
     /**
@@ -221,8 +352,7 @@ public class GuiElementGroup extends GuiElement {
      * @param item The item for the filler element
      */
     public void setFiller(ItemStack item) {
-        filler = new StaticGuiElement(' ', item, " ");
-        filler.setGui(gui);
+        setFiller(new StaticGuiElement(' ', item, " "));
     }
     
     /**
@@ -234,6 +364,9 @@ public class GuiElementGroup extends GuiElement {
         if (filler != null) {
             filler.setGui(gui);
         }
+        if (gui != null) {
+            gui.invalidatePersonalized();
+        }
     }
     
     /**
@@ -249,7 +382,15 @@ public class GuiElementGroup extends GuiElement {
      * @return  The amount of elements that this group has
      */
     public int size() {
-        return elements.size();
+        if (sizeProvider == null) {
+            return elements.size();
+        }
+        synchronized (cachedPages) {
+            if (cachedSize < 0) {
+                cachedSize = Math.max(sizeProvider.getAsInt(), 0);
+            }
+            return cachedSize;
+        }
     }
 
     /**
@@ -268,6 +409,17 @@ public class GuiElementGroup extends GuiElement {
         return alignment;
     }
 
+    @FunctionalInterface
+    public interface PageFetcher {
+        /**
+         * Fetch the elements of a page of a data source
+         * @param offset    The index of the first element to fetch
+         * @param limit     The maximum amount of elements to fetch
+         * @return The fetched elements, less than the limit if the end of the data was reached
+         */
+        List<GuiElement> fetch(int offset, int limit);
+    }
+
     public enum Alignment {
         LEFT,
         CENTER,
@@ -0,0 +1,282 @@
+package space.ngrix.gui;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Performance metrics of all GUIs with the same metrics id, see {@link InventoryGui#setMetricsId(String)}.
+ * Every metric is recorded into a histogram with power of two buckets, recording a value only needs a few atomic
+ * additions so the metrics can stay enabled in production. They are disabled by default, see {@link #setEnabled(boolean)}.
+ */
+public final class GuiMetrics {
+    /**
+     * The maximum amount of ids that get their own metrics, all further ids are recorded under {@link #OVERFLOW_ID}
+     */
+    public static final int MAX_IDS = 1024;
+    /**
+     * The id that the metrics of all ids above {@link #MAX_IDS} are recorded under
+     */
+    public static final String OVERFLOW_ID = "<overflow>";
+    private static final Map<String, GuiMetrics> METRICS = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = false;
+
+    private final String id;
+    private final Histogram draw = new Histogram(true);
+    private final Histogram getItem = new Histogram(true);
+    private final Histogram replaceVars = new Histogram(true);
+    private final Histogram slotsWritten = new Histogram(false);
+    private final Histogram clickLatency = new Histogram(true);
+
+    private GuiMetrics(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the metrics of an id, they are created if they don't exist yet.
+     * Once {@link #MAX_IDS} ids have metrics the ones of {@link #OVERFLOW_ID} are returned for new ids.
+     * @param id    The metrics id of the GUIs
+     * @return The metrics
+     */
+    public static GuiMetrics get(String id) {
+        GuiMetrics metrics = METRICS.get(id);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (METRICS.size() >= MAX_IDS) {
+            return METRICS.computeIfAbsent(OVERFLOW_ID, GuiMetrics::new);
+        }
+        return METRICS.computeIfAbsent(id, GuiMetrics::new);
+    }
+
+    /**
+     * Get the metrics of all GUIs that were recorded so far
+     * @return An unmodifiable view of the metrics by their id
+     */
+    public static Map<String, GuiMetrics> getAll() {
+        return Collections.unmodifiableMap(METRICS);
+    }
+
+    /**
+     * Check whether or not metrics are recorded
+     * @return Whether or not metrics are recorded
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether or not metrics should be recorded for all GUIs
+     * @param enabled   Whether or not to record metrics
+     */
+    public static void setEnabled(boolean enabled) {
+        GuiMetrics.enabled = enabled;
+    }
+
+    /**
+     * Remove all recorded metrics
+     */
+    public static void reset() {
+        METRICS.clear();
+    }
+
+    /**
+     * Get a human readable report of all metrics, sorted by their id
+     * @return The report
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        for (GuiMetrics metrics : new TreeMap<>(METRICS).values()) {
+            report.append(metrics.id).append(":\n");
+            metrics.draw.append(report, "draw");
+            metrics.getItem.append(report, "getItem");
+            metrics.replaceVars.append(report, "replaceVars");
+            metrics.slotsWritten.append(report, "slotsWritten");
+            metrics.clickLatency.append(report, "clickLatency");
+        }
+        return report.toString();
+    }
+
+    /**
+     * Write the report of all metrics to a file, see {@link #report()}
+     * @param file  The file to write to, it is replaced if it exists
+     * @throws IOException Thrown if the file couldn't be written
+     */
+    public static void dump(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, report().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get the id of the GUIs that these metrics belong to
+     * @return The metrics id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the time that drawing the whole GUI or some slots for one player took
+     * @return The histogram of draw durations in nanoseconds
+     */
+    public Histogram getDraw() {
+        return draw;
+    }
+
+    /**
+     * Get the time that getting the item of an element for one slot took
+     * @return The histogram of {@link GuiElement#getItem} durations in nanoseconds
+     */
+    public Histogram getGetItem() {
+        return getItem;
+    }
+
+    /**
+     * Get the time that replacing the placeholders of a text took
+     * @return The histogram of placeholder replacement durations in nanoseconds
+     */
+    public Histogram getReplaceVars() {
+        return replaceVars;
+    }
+
+    /**
+     * Get the amount of slots that were written per draw
+     * @return The histogram of written slots
+     */
+    public Histogram getSlotsWritten() {
+        return slotsWritten;
+    }
+
+    /**
+     * Get the time from receiving a click until its action completed
+     * @return The histogram of click latencies in nanoseconds
+     */
+    public Histogram getClickLatency() {
+        return clickLatency;
+    }
+
+    /**
+     * A histogram with one bucket for every power of two. Bucket <code>i</code> counts the values
+     * between <code>2^i</code> and <code>2^(i+1) - 1</code>, zero and negative values are counted in the first one.
+     */
+    public static final class Histogram {
+        private final boolean nanos;
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram(boolean nanos) {
+            this.nanos = nanos;
+        }
+
+        /**
+         * Record a value
+         * @param value The value to record
+         */
+        public void record(long value) {
+            buckets.incrementAndGet(value > 0 ? 63 - Long.numberOfLeadingZeros(value) : 0);
+            count.incrementAndGet();
+            sum.addAndGet(value);
+            long current;
+            while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+                // Retry until the max is at least the value
+            }
+        }
+
+        /**
+         * Get the amount of recorded values
+         * @return The amount of values
+         */
+        public long getCount() {
+            return count.get();
+        }
+
+        /**
+         * Get the sum of all recorded values
+         * @return The sum
+         */
+        public long getSum() {
+            return sum.get();
+        }
+
+        /**
+         * Get the largest recorded value
+         * @return The largest value or <code>0</code> if none was recorded
+         */
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * Get the average of all recorded values
+         * @return The average or <code>0</code> if none was recorded
+         */
+        public double getMean() {
+            long count = getCount();
+            return count > 0 ? (double) getSum() / count : 0;
+        }
+
+        /**
+         * Get an upper bound of a percentile. As values are only counted in buckets this is the
+         * largest value of the bucket that contains the percentile, capped at the largest recorded value.
+         * @param percentile    The percentile between 0 and 100
+         * @return The upper bound of the percentile or <code>0</code> if no value was recorded
+         */
+        public long getPercentile(double percentile) {
+            long count = getCount();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(count * Math.max(0, Math.min(100, percentile)) / 100);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank && seen > 0) {
+                    return Math.min(i < 62 ? (2L << i) - 1 : Long.MAX_VALUE, getMax());
+                }
+            }
+            return getMax();
+        }
+
+        /**
+         * Get the amount of values in each bucket
+         * @return A copy of the bucket counts
+         */
+        public long[] getBuckets() {
+            long[] copy = new long[buckets.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = buckets.get(i);
+            }
+            return copy;
+        }
+
+        private void append(StringBuilder report, String name) {
+            report.append("  ").append(name).append(": count=").append(getCount());
+            if (getCount() > 0) {
+                report.append(", mean=").append(format(getMean()))
+                        .append(", p50<=").append(format(getPercentile(50)))
+                        .append(", p99<=").append(format(getPercentile(99)))
+                        .append(", max=").append(format(getMax()));
+            }
+            report.append('\n');
+        }
+
+        private String format(double value) {
+            if (nanos) {
+                return String.format(Locale.ROOT, "%.1fus", value / 1000);
+            }
+            return String.format(Locale.ROOT, "%.1f", value);
+        }
+    }
+}
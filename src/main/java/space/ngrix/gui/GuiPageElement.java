@@ -47,6 +47,8 @@ public class GuiPageElement extends StaticGuiElement {
     public GuiPageElement(char slotChar, ItemStack item, PageAction pageAction, String... text) {
         super(slotChar, item, text);
         setAction(click -> {
+            // Pages are per player, the other viewers don't need to be redrawn
+            click.markUnchanged();
             switch (pageAction) {
                 case NEXT:
                     if (click.getGui().getPageNumber(click.getWhoClicked()) + 1 < click.getGui().getPageAmount(click.getWhoClicked())) {
@@ -105,14 +107,15 @@ public class GuiPageElement extends StaticGuiElement {
                 || (pageAction == PageAction.PREVIOUS && gui.getPageNumber(who) == 0)) {
             return gui.getFiller() != null ? gui.getFiller().getItem(who, slot) : null;
         }
+        int number = getNumber();
         if (pageAction == PageAction.PREVIOUS) {
-            setNumber(gui.getPageNumber(who));
+            number = gui.getPageNumber(who);
         } else if (pageAction == PageAction.NEXT) {
-            setNumber(gui.getPageNumber(who) + 2);
+            number = gui.getPageNumber(who) + 2;
         } else if (pageAction == PageAction.LAST) {
-            setNumber(gui.getPageAmount(who));
+            number = gui.getPageAmount(who);
         }
-        return super.getItem(who, slot).clone();
+        return renderItem(who, number);
     }
 
     public enum PageAction {
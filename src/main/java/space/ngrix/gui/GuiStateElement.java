@@ -125,6 +125,14 @@ public class GuiStateElement extends GuiElement {
         }
     }
 
+    /**
+     * Get all states of this element
+     * @return  The states that this element can have
+     */
+    public State[] getStates() {
+        return states;
+    }
+
     /**
      * Get the current state of this element
      * @return  The current state of this element
@@ -192,6 +200,8 @@ public class GuiStateElement extends GuiElement {
         private final String key;
         private final ItemStack item;
         private String[] text;
+        // The text compiled once when it is set, null if there is no text
+        private PlaceholderTemplate textTemplate;
         private InventoryGui gui;
 
         /**
@@ -210,6 +220,7 @@ public class GuiStateElement extends GuiElement {
             this.key = key;
             this.item = item;
             this.text = text;
+            this.textTemplate = InventoryGui.compileItemText(text);
         }
 
         /**
@@ -222,6 +233,10 @@ public class GuiStateElement extends GuiElement {
          */
         public void setText(String... text) {
             this.text = text;
+            this.textTemplate = InventoryGui.compileItemText(text);
+            if (gui != null) {
+                gui.invalidatePersonalized();
+            }
         }
 
         /**
@@ -241,10 +256,20 @@ public class GuiStateElement extends GuiElement {
          */
         public ItemStack getItem(HumanEntity who) {
             ItemStack clone = item.clone();
-            gui.setItemText(who, clone, getText());
+            if (textTemplate != null) {
+                gui.setItemText(clone, gui.getItemText(who, textTemplate), text[0] != null);
+            }
             return clone;
         }
 
+        /**
+         * Get the compiled text of this state
+         * @return The template of the text lines or <code>null</code> if there is no text
+         */
+        PlaceholderTemplate getTextTemplate() {
+            return textTemplate;
+        }
+
         /**
          * Get the string key of the state.
          * @return The state's string key
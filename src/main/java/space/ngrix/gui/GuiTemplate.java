@@ -0,0 +1,253 @@
+package space.ngrix.gui;
+
+import com.cryptomorin.xseries.XMaterial;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+import space.ngrix.config.backend.internal.DataStorage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable GUI definition that was compiled once from a config and can create any amount of {@link InventoryGui}s.
+ * Materials are resolved with XSeries while compiling so creating a GUI only has to copy the elements.
+ * <pre>
+ * title: "&amp;8Shop - Page %page%/%pages%"
+ * drag-event: false
+ * rows:
+ *   - "aaaaaaaaa"
+ *   - "b p s n  "
+ * filler: GRAY_STAINED_GLASS_PANE
+ * elements:
+ *   a:
+ *     material: DIAMOND
+ *     amount: 1
+ *     text: ["&amp;bDiamond", "&amp;7Click to buy"]
+ *     action: buy
+ *   p:
+ *     type: page
+ *     page: previous
+ *     material: ARROW
+ *     text: "&amp;7Previous page (%prevpage%)"
+ *   s:
+ *     type: state
+ *     default: enabled
+ *     states:
+ *       enabled: {material: LIME_DYE, text: "&amp;aEnabled", action: disable}
+ *       disabled: {material: GRAY_DYE, text: "&amp;cDisabled", action: enable}
+ *   b:
+ *     type: back
+ *     close: true
+ *     material: BARRIER
+ *     text: "&amp;cBack"
+ * </pre>
+ * The element types are <code>static</code> (default), <code>page</code>, <code>state</code> and <code>back</code>.
+ * Actions are bound by their key when creating a GUI. States are used in the order of the config
+ * which is only kept by files that preserve the order of their keys.
+ */
+public final class GuiTemplate {
+    private final String title;
+    private final boolean dragEvent;
+    private final String[] rows;
+    private final ItemStack filler;
+    private final List<ElementTemplate> elements;
+
+    private GuiTemplate(String title, boolean dragEvent, String[] rows, ItemStack filler, List<ElementTemplate> elements) {
+        this.title = title;
+        this.dragEvent = dragEvent;
+        this.rows = rows;
+        this.filler = filler;
+        this.elements = Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * Compile a GUI definition
+     * @param config    The config or section that contains the definition
+     * @return The compiled template
+     * @throws IllegalArgumentException Thrown if the definition is invalid
+     */
+    public static GuiTemplate compile(DataStorage config) throws IllegalArgumentException {
+        List<String> rows = config.getStringList("rows");
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("A GUI definition needs at least one row!");
+        }
+        String fillerMaterial = config.getString("filler");
+        ItemStack filler = fillerMaterial != null && !fillerMaterial.isEmpty() ? parseMaterial(fillerMaterial, "filler") : null;
+
+        List<ElementTemplate> elements = new ArrayList<>();
+        Set<String> keys = config.singleLayerKeySet("elements");
+        if (keys != null) {
+            for (String key : keys) {
+                if (key.length() != 1) {
+                    throw new IllegalArgumentException("Element key '" + key + "' needs to be exactly one character!");
+                }
+                elements.add(compileElement(config, key.charAt(0), "elements." + key));
+            }
+        }
+        return new GuiTemplate(config.getString("title"), config.getBoolean("drag-event"), rows.toArray(new String[0]), filler, elements);
+    }
+
+    private static ElementTemplate compileElement(DataStorage config, char slotChar, String path) {
+        String type = config.getOrDefault(path + ".type", "static").toLowerCase(Locale.ROOT);
+        String action = config.getString(path + ".action");
+        switch (type) {
+            case "static": {
+                ItemStack item = parseItem(config, path);
+                String[] text = parseText(config, path + ".text");
+                return actions -> new StaticGuiElement(slotChar, item.clone(), item.getAmount(), getAction(actions, action), text);
+            }
+            case "page": {
+                ItemStack item = parseItem(config, path);
+                String[] text = parseText(config, path + ".text");
+                GuiPageElement.PageAction pageAction;
+                try {
+                    pageAction = GuiPageElement.PageAction.valueOf(config.getString(path + ".page").toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid page action '" + config.getString(path + ".page") + "' at " + path + ".page", e);
+                }
+                return actions -> new GuiPageElement(slotChar, item.clone(), pageAction, text);
+            }
+            case "back": {
+                ItemStack item = parseItem(config, path);
+                String[] text = parseText(config, path + ".text");
+                boolean close = config.getBoolean(path + ".close");
+                return actions -> new GuiBackElement(slotChar, item.clone(), close, text);
+            }
+            case "state": {
+                Set<String> stateKeys = config.singleLayerKeySet(path + ".states");
+                if (stateKeys == null || stateKeys.isEmpty()) {
+                    throw new IllegalArgumentException("State element at " + path + " needs at least one state!");
+                }
+                List<String> keys = new ArrayList<>(stateKeys);
+                List<ItemStack> items = new ArrayList<>();
+                List<String[]> texts = new ArrayList<>();
+                List<String> stateActions = new ArrayList<>();
+                for (String key : keys) {
+                    String statePath = path + ".states." + key;
+                    items.add(parseItem(config, statePath));
+                    texts.add(parseText(config, statePath + ".text"));
+                    stateActions.add(config.getString(statePath + ".action"));
+                }
+                String defaultState = config.getOrDefault(path + ".default", keys.get(0));
+                if (!keys.contains(defaultState)) {
+                    throw new IllegalArgumentException("Unknown default state '" + defaultState + "' at " + path + ".default");
+                }
+                return actions -> {
+                    GuiStateElement.State[] states = new GuiStateElement.State[keys.size()];
+                    for (int i = 0; i < states.length; i++) {
+                        GuiElement.Action stateAction = getAction(actions, stateActions.get(i));
+                        states[i] = new GuiStateElement.State(
+                                click -> {
+                                    if (stateAction != null) {
+                                        stateAction.onClick(click);
+                                    }
+                                },
+                                keys.get(i),
+                                items.get(i).clone(),
+                                texts.get(i)
+                        );
+                    }
+                    return new GuiStateElement(slotChar, defaultState, states);
+                };
+            }
+            default:
+                throw new IllegalArgumentException("Unknown element type '" + type + "' at " + path + ".type");
+        }
+    }
+
+    private static ItemStack parseItem(DataStorage config, String path) {
+        ItemStack item = parseMaterial(config.getString(path + ".material"), path + ".material");
+        int amount = config.getOrDefault(path + ".amount", 1);
+        if (amount < 1 || amount > 64) {
+            throw new IllegalArgumentException("Amount " + amount + " at " + path + ".amount needs to be between 1 and 64!");
+        }
+        item.setAmount(amount);
+        return item;
+    }
+
+    private static ItemStack parseMaterial(String material, String path) {
+        if (material == null || material.isEmpty()) {
+            throw new IllegalArgumentException("Missing material at " + path);
+        }
+        ItemStack item = XMaterial.matchXMaterial(material)
+                .filter(XMaterial::isSupported)
+                .map(XMaterial::parseItem)
+                .orElse(null);
+        if (item == null) {
+            throw new IllegalArgumentException("Unknown material '" + material + "' at " + path);
+        }
+        return item;
+    }
+
+    private static String[] parseText(DataStorage config, String path) {
+        Object raw = config.get(path);
+        if (raw == null) {
+            return new String[0];
+        } else if (raw instanceof List) {
+            List<?> list = (List<?>) raw;
+            String[] text = new String[list.size()];
+            for (int i = 0; i < text.length; i++) {
+                text[i] = list.get(i) != null ? String.valueOf(list.get(i)) : null;
+            }
+            return text;
+        }
+        return String.valueOf(raw).split("\n");
+    }
+
+    private static GuiElement.Action getAction(Map<String, GuiElement.Action> actions, String key) {
+        return key != null && !key.isEmpty() && actions != null ? actions.get(key) : null;
+    }
+
+    /**
+     * Create a new GUI from this template
+     * @param plugin    The plugin that owns the GUI
+     * @param actions   The actions that the action keys of the elements are bound to
+     * @return The created GUI
+     */
+    public InventoryGui create(JavaPlugin plugin, Map<String, GuiElement.Action> actions) {
+        return create(plugin, null, actions);
+    }
+
+    /**
+     * Create a new GUI from this template
+     * @param plugin    The plugin that owns the GUI
+     * @param owner     The owner of the GUI, can be null
+     * @param actions   The actions that the action keys of the elements are bound to
+     * @return The created GUI
+     */
+    public InventoryGui create(JavaPlugin plugin, InventoryHolder owner, Map<String, GuiElement.Action> actions) {
+        InventoryGui gui = new InventoryGui(plugin, owner, title, dragEvent, rows.clone());
+        if (filler != null) {
+            gui.setFiller(filler.clone());
+        }
+        for (ElementTemplate element : elements) {
+            gui.addElement(element.create(actions));
+        }
+        return gui;
+    }
+
+    /**
+     * Get the title of the GUIs created from this template
+     * @return The title with placeholders
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Get the rows of the GUIs created from this template
+     * @return A copy of the setup rows
+     */
+    public String[] getRows() {
+        return rows.clone();
+    }
+
+    private interface ElementTemplate {
+        GuiElement create(Map<String, GuiElement.Action> actions);
+    }
+}
@@ -27,7 +27,6 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.Nameable;
 import org.bukkit.Sound;
@@ -51,6 +50,7 @@ import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryInteractEvent;
 import org.bukkit.event.inventory.InventoryMoveItemEvent;
 import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerSwapHandItemsEvent;
 import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.inventory.Inventory;
@@ -62,6 +62,7 @@ import org.bukkit.material.MaterialData;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import space.ngrix.utils.TaskScheduler;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
@@ -71,11 +72,10 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * The main library class that lets you create and manage your GUIs
@@ -91,25 +91,28 @@ public class InventoryGui implements Listener {
 
     private final static Map<String, InventoryGui> GUI_MAP = new ConcurrentHashMap<>();
     private final static Map<UUID, ArrayDeque<InventoryGui>> GUI_HISTORY = new ConcurrentHashMap<>();
-
-    private final static Map<String, Pattern> PATTERN_CACHE = new HashMap<>();
-
-    private final static boolean FOLIA;
+    private final static String[] PLACEHOLDERS = {"plugin", "owner", "title", "page", "nextpage", "prevpage", "pages"};
+    // Placeholders whose value is the same for every viewer
+    private final static Set<String> GLOBAL_PLACEHOLDERS = new HashSet<>(Arrays.asList("plugin", "owner", "title"));
+    private final static UUID SHARED_RENDER_KEY = new UUID(0, 0);
 
     private static String DEFAULT_CLICK_SOUND;
 
     private final JavaPlugin plugin;
-    private final GuiListener listener;
+    private final TaskScheduler scheduler;
     private InventoryCreator creator;
     private BiConsumer<ItemMeta, String> itemNameSetter;
     private BiConsumer<ItemMeta, List<String>> itemLoreSetter;
     private String title;
+    private PlaceholderTemplate titleTemplate;
     private Component titleComponent;
     private boolean titleUpdated = false;
+    private final Map<UUID, String> sentTitles = new ConcurrentHashMap<>();
     private boolean dragEvent = false;
     private final char[] slots;
     private int width;
     private final GuiElement[] elementSlots;
+    private final Map<Character, int[]> charSlots;
     private final Map<Character, GuiElement> elements = new ConcurrentHashMap<>();
     private InventoryType inventoryType;
     private final Map<UUID, Inventory> inventories = new ConcurrentHashMap<>();
@@ -120,17 +123,25 @@ public class InventoryGui implements Listener {
     private CloseAction closeAction = close -> true;
     private String clickSound = getDefaultClickSound();
     private boolean silent = false;
+    private boolean diffDraw = false;
+    private final Map<UUID, ItemStack[]> renderedItems = new ConcurrentHashMap<>();
+    private final AtomicLong writtenSlots = new AtomicLong();
+    private final AtomicLong skippedSlots = new AtomicLong();
+    private final Map<UUID, PendingDraw> pendingDraws = new ConcurrentHashMap<>();
+    private boolean sharedInventory = false;
+    // Cached result of isPersonalized(), null if it needs to be checked again
+    private volatile Boolean personalized = null;
+    // Top level elements that are or contain animated or dynamic elements, null if they need to be collected again
+    private volatile List<GuiElement> animationRoots = null;
+    // Whether or not there are dynamic elements, also in groups, null if it needs to be checked again
+    private volatile Boolean dynamicElements = null;
+    private Inventory sharedInventoryInstance = null;
+    private final AtomicLong mergedDraws = new AtomicLong();
+    private ClickLimiter clickLimiter = null;
+    private final AtomicLong droppedClicks = new AtomicLong();
+    private String metricsId = null;
     
     static {
-        boolean folia;
-        try {
-            Class.forName("io.papermc.paper.threadedregions.scheduler.AsyncScheduler");
-            folia = true;
-        } catch (ClassNotFoundException e) {
-            folia = false;
-        }
-        FOLIA = folia;
-
         // Sound names changed, make it compatible with both versions
         String clickSound = null;
         Map<String, String> clickSounds = new LinkedHashMap<>();
@@ -173,13 +184,14 @@ public class InventoryGui implements Listener {
      */
     public InventoryGui(JavaPlugin plugin, InventoryCreator creator, BiConsumer<ItemMeta, String> itemNameSetter, BiConsumer<ItemMeta, List<String>> itemLoreSetter, InventoryHolder owner, String title, boolean dragEvent, String[] rows, GuiElement... elements) {
         this.plugin = plugin;
+        this.scheduler = TaskScheduler.get(plugin);
         this.creator = creator;
         this.itemNameSetter = itemNameSetter;
         this.itemLoreSetter = itemLoreSetter;
         this.owner = owner;
         this.title = title;
+        this.titleTemplate = title != null ? PlaceholderTemplate.compile(title) : null;
         this.dragEvent = dragEvent;
-        this.listener = new GuiListener();
 
         width = ROW_WIDTHS[0];
         for (String row : rows) {
@@ -219,6 +231,7 @@ public class InventoryGui implements Listener {
         }
         slots = slotsBuilder.toString().toCharArray();
         elementSlots = new GuiElement[slots.length];
+        charSlots = compileCharSlots(slots);
 
         addElements(elements);
     }
@@ -239,13 +252,13 @@ public class InventoryGui implements Listener {
      */
     public InventoryGui(JavaPlugin plugin, InventoryCreator creator, BiConsumer<ItemMeta, String> itemNameSetter, BiConsumer<ItemMeta, List<String>> itemLoreSetter, InventoryHolder owner, Component title, boolean dragEvent, String[] rows, GuiElement... elements) {
         this.plugin = plugin;
+        this.scheduler = TaskScheduler.get(plugin);
         this.creator = creator;
         this.itemNameSetter = itemNameSetter;
         this.itemLoreSetter = itemLoreSetter;
         this.owner = owner;
         this.titleComponent = title;
         this.dragEvent = dragEvent;
-        this.listener = new GuiListener();
 
         width = ROW_WIDTHS[0];
         for (String row : rows) {
@@ -285,6 +298,7 @@ public class InventoryGui implements Listener {
         }
         slots = slotsBuilder.toString().toCharArray();
         elementSlots = new GuiElement[slots.length];
+        charSlots = compileCharSlots(slots);
 
         addElements(elements);
     }
@@ -334,8 +348,8 @@ public class InventoryGui implements Listener {
      */
     public InventoryGui(JavaPlugin plugin, InventoryHolder owner, String title, boolean dragEvent, String[] rows, GuiElement... elements) {
         this(plugin, new InventoryCreator(
-                (gui, who, type) -> plugin.getServer().createInventory(new Holder(gui), type, gui.replaceVars(who, gui.getTitle())),
-                (gui, who, size) -> plugin.getServer().createInventory(new Holder(gui), size, gui.replaceVars(who, gui.getTitle()))),
+                (gui, who, type) -> plugin.getServer().createInventory(new Holder(gui), type, gui.renderTitle(who)),
+                (gui, who, size) -> plugin.getServer().createInventory(new Holder(gui), size, gui.renderTitle(who))),
                 owner, title, dragEvent, rows, elements);
     }
 
@@ -448,16 +462,31 @@ public class InventoryGui implements Listener {
         for (int slot : slots) {
             elementSlots[slot] = element;
         }
+        invalidatePersonalized();
     }
 
     private int[] getSlots(char slotChar) {
-        ArrayList<Integer> slotList = new ArrayList<>();
+        int[] slots = charSlots.get(slotChar);
+        return slots != null ? slots.clone() : new int[0];
+    }
+
+    /**
+     * Compile the setup string into a map of the slots that each character is used in
+     * @param slots The characters of the setup string
+     * @return A map of the character to its slots in ascending order
+     */
+    private static Map<Character, int[]> compileCharSlots(char[] slots) {
+        Map<Character, Integer> amounts = new HashMap<>();
+        for (char c : slots) {
+            amounts.merge(c, 1, Integer::sum);
+        }
+        Map<Character, int[]> charSlots = new HashMap<>();
+        Map<Character, Integer> filled = new HashMap<>();
         for (int i = 0; i < slots.length; i++) {
-            if (slots[i] == slotChar) {
-                slotList.add(i);
-            }
+            int[] charSlotList = charSlots.computeIfAbsent(slots[i], c -> new int[amounts.get(c)]);
+            charSlotList[filled.merge(slots[i], 1, Integer::sum) - 1] = i;
         }
-        return slotList.stream().mapToInt(Integer::intValue).toArray();
+        return Collections.unmodifiableMap(charSlots);
     }
 
     /**
@@ -568,6 +597,7 @@ public class InventoryGui implements Listener {
                 removed = true;
             }
         }
+        invalidatePersonalized();
         return removed;
     }
 
@@ -595,6 +625,7 @@ public class InventoryGui implements Listener {
         }
         GuiElement element = elementSlots[slot];
         elementSlots[slot] = null;
+        invalidatePersonalized();
         return element;
     }
 
@@ -643,7 +674,7 @@ public class InventoryGui implements Listener {
      */
     public void setPageNumber(HumanEntity player, int pageNumber) {
         setPageNumberInternal(player, pageNumber);
-        draw(player, false);
+        requestDraw(player, false);
     }
 
     private void setPageNumberInternal(HumanEntity player, int pageNumber) {
@@ -707,9 +738,15 @@ public class InventoryGui implements Listener {
      * @param checkOpen Whether or not it should check if this gui is already open
      */
     public void show(HumanEntity player, boolean checkOpen) {
+        boolean recreate = titleUpdated;
+        if (recreate && checkOpen && this.equals(getOpen(player))
+                && (title != null && title.equals(sentTitles.get(player.getUniqueId())) || updateTitle(player))) {
+            // The open view already shows the new title, no need to recreate the inventory
+            recreate = false;
+        }
         // Draw the elements into an inventory, if the title was updated then also force-recreate the inventory if it exists
-        draw(player, true, titleUpdated);
-        if (titleUpdated || !checkOpen || !this.equals(getOpen(player))) {
+        draw(player, true, recreate);
+        if (recreate || !checkOpen || !this.equals(getOpen(player))) {
             InventoryType type = player.getOpenInventory().getType();
             if (type != InventoryType.CRAFTING && type != InventoryType.CREATIVE) {
                 // If the player already has a gui open then we assume that the call was from that gui.
@@ -735,6 +772,102 @@ public class InventoryGui implements Listener {
         titleUpdated = false;
     }
 
+    /**
+     * Show this GUI to a player while building the items of static elements on another thread.
+     * Dynamic elements, groups and pages are resolved on the calling thread which needs to be the player's one.
+     * The raw items, texts and placeholder values of static elements are copied there too,
+     * only building their items from these copies happens asynchronously.
+     * The inventory is created and opened on the player's thread afterwards.<br>
+     * Falls back to {@link #show(HumanEntity)} if the player already has an inventory of this GUI,
+     * the title was updated or the shared inventory is used.
+     * @param player    The Player to show the GUI to
+     */
+    public void showAsync(HumanEntity player) {
+        if (titleUpdated || getInventory(player) != null || useSharedInventory()) {
+            show(player);
+            return;
+        }
+        updateElements(player, elements.values());
+        calculatePageAmount(player);
+        build();
+
+        List<Supplier<ItemStack>> slotItems = new ArrayList<>(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            slotItems.add(snapshotSlot(player, i));
+        }
+        runTaskAsync(() -> {
+            ItemStack[] contents = new ItemStack[slotItems.size()];
+            for (int i = 0; i < contents.length; i++) {
+                contents[i] = slotItems.get(i).get();
+            }
+            runTask(player, () -> openPrebuilt(player, contents));
+        });
+    }
+
+    /**
+     * Get how to build the item of a slot. Resolves dynamic elements and groups to the element that is actually displayed.
+     * Items of plain {@link StaticGuiElement}s will be built from copies of their state when the supplier is called,
+     * all others right away.
+     * @param who   The player to build the slot for
+     * @param slot  The slot
+     * @return The supplier of the item
+     */
+    private Supplier<ItemStack> snapshotSlot(HumanEntity who, int slot) {
+        GuiElement element = getElement(slot);
+        if (element == null) {
+            element = getFiller();
+        }
+        while (element instanceof DynamicGuiElement || element instanceof GuiElementGroup) {
+            if (element instanceof DynamicGuiElement) {
+                element = ((DynamicGuiElement) element).getCachedElement(who);
+            } else {
+                element = ((GuiElementGroup) element).getElement(slot, getPageNumber(who));
+            }
+        }
+        if (element == null) {
+            return () -> null;
+        }
+        if (element.getClass() == StaticGuiElement.class) {
+            StaticGuiElement staticElement = (StaticGuiElement) element;
+            return staticElement.snapshotItem(who, staticElement.getNumber());
+        }
+        ItemStack item = element.getItem(who, slot);
+        return () -> item;
+    }
+
+    private void openPrebuilt(HumanEntity player, ItemStack[] contents) {
+        if (getInventory(player) != null || !isOnline(player)) {
+            // Someone else created the inventory in the meantime, use the normal way
+            if (isOnline(player)) {
+                show(player);
+            }
+            return;
+        }
+        Inventory inventory = createInventory(player);
+        inventory.setContents(contents);
+        writtenSlots.addAndGet(contents.length);
+        inventories.put(player.getUniqueId(), inventory);
+        renderedItems.remove(player.getUniqueId());
+        if (diffDraw) {
+            ItemStack[] rendered = new ItemStack[inventory.getSize()];
+            for (int i = 0; i < rendered.length && i < contents.length; i++) {
+                rendered[i] = getElement(i) instanceof GuiStorageElement ? null : contents[i];
+            }
+            renderedItems.put(player.getUniqueId(), rendered);
+        }
+        InventoryType type = player.getOpenInventory().getType();
+        if (type == InventoryType.CRAFTING || type == InventoryType.CREATIVE) {
+            clearHistory(player);
+        }
+        addHistory(player, this);
+        player.openInventory(inventory);
+        GuiListener.startTasks(this);
+    }
+
+    private static boolean isOnline(HumanEntity player) {
+        return !(player instanceof Player) || ((Player) player).isOnline();
+    }
+
     /**
      * Build the gui
      */
@@ -748,21 +881,97 @@ public class InventoryGui implements Listener {
      */
     public void build(InventoryHolder owner) {
         setOwner(owner);
-        listener.registerListeners();
+        GuiListener.register(this);
     }
 
     /**
      * Draw the elements in the inventory. This can be used to manually refresh the gui. Updates any dynamic elements.
+     * The draws are done on the next tick and merged with other draws of the same viewers, see {@link #requestDraw}.
      */
     public void draw() {
         for (UUID playerId : inventories.keySet()) {
-            Player player = plugin.getServer().getPlayer(playerId);
+            Player player = playerId != null ? plugin.getServer().getPlayer(playerId) : null;
+            if (player != null) {
+                requestDraw(player, true);
+            }
+        }
+    }
+
+    /**
+     * Request to draw the GUI for a player on the next tick. All requests for the same player until then
+     * are merged into a single draw which runs on the player's thread.
+     * @param who           For who to draw the GUI
+     * @param updateDynamic Update dynamic elements
+     */
+    public void requestDraw(HumanEntity who, boolean updateDynamic) {
+        queueDraw(who, updateDynamic, null);
+    }
+
+    /**
+     * Request to draw certain slots of the GUI for a player on the next tick, see {@link #requestDraw}
+     * @param who   For who to draw the slots
+     * @param slots The slots to draw
+     */
+    public void requestDrawSlots(HumanEntity who, int... slots) {
+        BitSet slotSet = new BitSet();
+        for (int slot : slots) {
+            if (slot >= 0) {
+                slotSet.set(slot);
+            }
+        }
+        queueDraw(who, false, slotSet);
+    }
+
+    /**
+     * Request to draw certain slots of the GUI for all players that currently view it, see {@link #requestDraw}
+     * @param slots The slots to draw
+     */
+    public void requestDrawSlots(int... slots) {
+        for (UUID playerId : inventories.keySet()) {
+            Player player = playerId != null ? plugin.getServer().getPlayer(playerId) : null;
             if (player != null) {
-                runTaskOrNow(player, () -> draw(player));
+                requestDrawSlots(player, slots);
+            }
+        }
+    }
+
+    private void queueDraw(HumanEntity who, boolean updateDynamic, BitSet slots) {
+        boolean[] queued = {false};
+        pendingDraws.compute(who.getUniqueId(), (id, pending) -> {
+            if (pending == null) {
+                queued[0] = true;
+                return new PendingDraw(updateDynamic, slots);
             }
+            pending.merge(updateDynamic, slots);
+            mergedDraws.incrementAndGet();
+            return pending;
+        });
+        if (queued[0]) {
+            runTask(who, () -> flushDraw(who));
+        }
+    }
+
+    private void flushDraw(HumanEntity who) {
+        PendingDraw pending = pendingDraws.remove(who.getUniqueId());
+        if (pending == null) {
+            // Already done by a direct draw or the GUI was closed in the meantime
+            return;
+        }
+        if (pending.slots == null) {
+            draw(who, pending.updateDynamic);
+        } else if (!pending.slots.isEmpty()) {
+            drawSlots(who, pending.slots.stream().toArray());
         }
     }
 
+    /**
+     * Get the amount of draw requests that were merged into an already pending draw
+     * @return The amount of merged draws
+     */
+    public long getMergedDraws() {
+        return mergedDraws.get();
+    }
+
     /**
      * Draw the elements in the inventory. This can be used to manually refresh the gui. Updates any dynamic elements.
      * @param who For who to draw the GUI
@@ -787,6 +996,8 @@ public class InventoryGui implements Listener {
      * @param recreateInventory Recreate the inventory
      */
     public void draw(HumanEntity who, boolean updateDynamic, boolean recreateInventory) {
+        GuiMetrics metrics = getMetrics();
+        long start = metrics != null ? System.nanoTime() : 0;
         if (updateDynamic) {
             updateElements(who, elements.values());
         }
@@ -794,221 +1005,852 @@ public class InventoryGui implements Listener {
         Inventory inventory = getInventory(who);
         if (inventory == null || recreateInventory) {
             build();
-            if (slots.length != inventoryType.getDefaultSize()) {
-                inventory = getInventoryCreator().getSizeCreator().create(this, who, slots.length);
+            if (who != null && useSharedInventory()) {
+                if (sharedInventoryInstance == null || recreateInventory) {
+                    sharedInventoryInstance = createInventory(who);
+                    renderedItems.remove(SHARED_RENDER_KEY);
+                }
+                inventory = sharedInventoryInstance;
             } else {
-                inventory = getInventoryCreator().getTypeCreator().create(this, who, inventoryType);
+                inventory = createInventory(who);
             }
             inventories.put(who != null ? who.getUniqueId() : null, inventory);
+            if (who != null) {
+                renderedItems.remove(who.getUniqueId());
+                sentTitles.remove(who.getUniqueId());
+            }
+        } else if (inventory == sharedInventoryInstance && !useSharedInventory()) {
+            // The GUI has per-player content now, give the player their own inventory
+            Inventory personal = createInventory(who);
+            inventories.put(who.getUniqueId(), personal);
+            renderedItems.remove(who.getUniqueId());
+            if (who.getOpenInventory().getTopInventory() == inventory) {
+                runTask(who, () -> {
+                    if (getInventory(who) == personal) {
+                        who.openInventory(personal);
+                    }
+                });
+            }
+            inventory = personal;
+        }
+        ItemStack[] rendered = null;
+        if (who != null && (diffDraw || inventory == sharedInventoryInstance)) {
+            // The shared inventory always only writes changes as it was most likely drawn for another viewer already
+            UUID renderKey = getRenderKey(who, inventory);
+            rendered = renderedItems.get(renderKey);
+            if (rendered == null || rendered.length != inventory.getSize()) {
+                // We don't know what is in the inventory, start from an empty one
+                inventory.clear();
+                rendered = new ItemStack[inventory.getSize()];
+                renderedItems.put(renderKey, rendered);
+            }
         } else {
             inventory.clear();
         }
+        int written = 0;
         for (int i = 0; i < inventory.getSize(); i++) {
             GuiElement element = getElement(i);
             if (element == null) {
                 element = getFiller();
             }
-            if (element != null) {
-                inventory.setItem(i, element.getItem(who, i));
+            if (rendered != null) {
+                ItemStack item = getItem(element, who, i, metrics);
+                // Storage elements reflect another inventory and might have been changed by the player, always write them
+                if (!(element instanceof GuiStorageElement) && Objects.equals(rendered[i], item)) {
+                    skippedSlots.incrementAndGet();
+                    continue;
+                }
+                rendered[i] = element instanceof GuiStorageElement ? null : item;
+                inventory.setItem(i, item);
+                written++;
+            } else if (element != null) {
+                inventory.setItem(i, getItem(element, who, i, metrics));
+                written++;
             }
         }
+        writtenSlots.addAndGet(written);
+        if (metrics != null) {
+            metrics.getSlotsWritten().record(written);
+            metrics.getDraw().record(System.nanoTime() - start);
+        }
+        if (who != null) {
+            // A pending draw that wouldn't do more than this one isn't necessary anymore
+            pendingDraws.computeIfPresent(who.getUniqueId(), (id, pending) -> {
+                if (pending.updateDynamic && !updateDynamic) {
+                    return pending;
+                }
+                mergedDraws.incrementAndGet();
+                return null;
+            });
+        }
+        GuiListener.startTasks(this);
     }
 
     /**
-     * Schedule a task on a {@link HumanEntity}/main thread to run on the next tick
-     * @param entity the human entity to schedule a task on
-     * @param task the task to be run
+     * Only draw certain slots of the inventory. If the amount of pages changed or there is no inventory yet
+     * then the whole GUI will be drawn.
+     * @param who   For who to draw the slots
+     * @param slots The slots to draw
      */
-    protected void runTask(HumanEntity entity, Runnable task) {
-        if (FOLIA) {
-            entity.getScheduler().run(plugin, st -> task.run(), null);
-        } else {
-            plugin.getServer().getScheduler().runTask(plugin, task);
+    public void drawSlots(HumanEntity who, int... slots) {
+        GuiMetrics metrics = getMetrics();
+        long start = metrics != null ? System.nanoTime() : 0;
+        int pageAmount = getPageAmount(who);
+        calculatePageAmount(who);
+        Inventory inventory = getInventory(who);
+        if (inventory == null || pageAmount != getPageAmount(who)) {
+            draw(who, false);
+            return;
+        }
+        ItemStack[] rendered = who != null && (diffDraw || inventory == sharedInventoryInstance) ? renderedItems.get(getRenderKey(who, inventory)) : null;
+        if (rendered != null && rendered.length != inventory.getSize()) {
+            rendered = null;
+        }
+        int written = 0;
+        for (int slot : slots) {
+            if (slot < 0 || slot >= inventory.getSize()) {
+                continue;
+            }
+            GuiElement element = getElement(slot);
+            if (element == null) {
+                element = getFiller();
+            }
+            ItemStack item = getItem(element, who, slot, metrics);
+            if (rendered != null) {
+                if (!(element instanceof GuiStorageElement) && Objects.equals(rendered[slot], item)) {
+                    skippedSlots.incrementAndGet();
+                    continue;
+                }
+                rendered[slot] = element instanceof GuiStorageElement ? null : item;
+            }
+            inventory.setItem(slot, item);
+            written++;
+        }
+        writtenSlots.addAndGet(written);
+        if (metrics != null) {
+            metrics.getSlotsWritten().record(written);
+            metrics.getDraw().record(System.nanoTime() - start);
         }
+        // The drawn elements might have been queried just now and be animated
+        GuiListener.startTasks(this);
     }
 
     /**
-     * Schedule a task on the global region/main thread to run on the next tick
-     * @param task the task to be run
+     * Get the item of an element for a slot and record how long that took
+     * @param element   The element or <code>null</code>
+     * @param who       The player to get the item for
+     * @param slot      The slot
+     * @param metrics   The metrics to record to or <code>null</code> if they are disabled
+     * @return The item or <code>null</code> if there is no element
      */
-    protected void runTask(Runnable task) {
-        if (FOLIA) {
-            plugin.getServer().getGlobalRegionScheduler().run(plugin, st -> task.run());
-        } else {
-            plugin.getServer().getScheduler().runTask(plugin, task);
+    private static ItemStack getItem(GuiElement element, HumanEntity who, int slot, GuiMetrics metrics) {
+        if (element == null) {
+            return null;
         }
+        if (metrics == null) {
+            return element.getDrawItem(who, slot);
+        }
+        long start = System.nanoTime();
+        ItemStack item = element.getDrawItem(who, slot);
+        metrics.getGetItem().record(System.nanoTime() - start);
+        return item;
     }
 
     /**
-     * Schedule a task on a {@link HumanEntity} to run on the next tick
-     * Alternatively if the current thread is already the right thread, execute immediately
-     * @param entity the human entity to schedule a task on
-     * @param task the task to be run
+     * Forget what was last drawn into the inventory of a player. The next diff draw will write every slot again.
+     * @param who   The player whose inventory content is unknown now
      */
-    protected void runTaskOrNow(HumanEntity entity, Runnable task) {
-        if (FOLIA) {
-            if (plugin.getServer().isOwnedByCurrentRegion(entity)) {
-                task.run();
-            } else {
-                entity.getScheduler().run(plugin, st -> task.run(), null);
-            }
-        } else {
-            if (plugin.getServer().isPrimaryThread()) {
-                task.run();
-            } else {
-                plugin.getServer().getScheduler().runTask(plugin, task);
-            }
-        }
+    private void forgetRendered(HumanEntity who) {
+        renderedItems.remove(getRenderKey(who, getInventory(who)));
     }
 
     /**
-     * Update all dynamic elements in a collection of elements.
-     * @param who       The player to update the elements for
-     * @param elements  The elements to update
+     * Get the key under which the last drawn items of an inventory are stored
+     * @param who       The player viewing the inventory
+     * @param inventory The inventory
+     * @return The key for the shared inventory or the player's id
      */
-    public static void updateElements(HumanEntity who, Collection<GuiElement> elements) {
-        for (GuiElement element : elements) {
-            if (element instanceof DynamicGuiElement) {
-                ((DynamicGuiElement) element).update(who);
-            } else if (element instanceof GuiElementGroup) {
-                updateElements(who, ((GuiElementGroup) element).getElements());
-            }
+    private UUID getRenderKey(HumanEntity who, Inventory inventory) {
+        return inventory != null && inventory == sharedInventoryInstance ? SHARED_RENDER_KEY : who.getUniqueId();
+    }
+
+    private Inventory createInventory(HumanEntity who) {
+        if (slots.length != inventoryType.getDefaultSize()) {
+            return getInventoryCreator().getSizeCreator().create(this, who, slots.length);
+        } else {
+            return getInventoryCreator().getTypeCreator().create(this, who, inventoryType);
         }
     }
 
     /**
-     * Closes the GUI for everyone viewing it
+     * Get whether or not viewers of this GUI should share one inventory if possible
+     * @return Whether or not the shared inventory mode is enabled
      */
-    public void close() {
-        close(true);
+    public boolean isSharedInventory() {
+        return sharedInventory;
     }
-    
+
     /**
-     * Close the GUI for everyone viewing it
-     * @param clearHistory  Whether to close the GUI completely (by clearing the history)
+     * Set whether or not viewers of this GUI should share one inventory instead of each getting their own copy.
+     * This is only used while the GUI doesn't have any per-player content (see {@link #isPersonalized()}),
+     * otherwise viewers automatically get their own inventories again on the next draw.
+     * The inventory creator will be called with the first viewer for the shared inventory.
+     * @param sharedInventory Whether or not to enable the shared inventory mode
      */
-    public void close(boolean clearHistory) {
-        for (Inventory inventory : inventories.values()) {
-            for (HumanEntity viewer : new ArrayList<>(inventory.getViewers())) {
-                close(viewer, clearHistory);
-            }
-        }
+    public void setSharedInventory(boolean sharedInventory) {
+        this.sharedInventory = sharedInventory;
     }
 
-    /**
-     * Closes the GUI for a specific viewer it
-     * @param viewer    The player viewing it
-     */
-    public void close(HumanEntity viewer) {
-        close(viewer, true);
+    private boolean useSharedInventory() {
+        return sharedInventory && !isPersonalized();
     }
 
     /**
-     * Closes the GUI for a specific viewer it
-     * @param viewer        The player viewing it
-     * @param clearHistory  Whether to close the GUI completely (by clearing the history)
+     * Check whether or not this GUI can display different content for different players.
+     * That is the case if it contains dynamic elements with the {@link DynamicGuiElement.Scope#PLAYER} scope,
+     * page or back elements, groups or storages with more than one page, placeholders in texts or the title
+     * other than <code>%plugin%</code>, <code>%owner%</code> and <code>%title%</code>
+     * or element types whose content isn't known. Elements nested in groups and animations are checked too.
+     * The result is cached until elements, their texts or the title change.
+     * @return Whether or not the GUI has per-player content
      */
-    public void close(HumanEntity viewer, boolean clearHistory) {
-        if (clearHistory) {
-            clearHistory(viewer);
+    public boolean isPersonalized() {
+        Boolean personalized = this.personalized;
+        if (personalized == null) {
+            personalized = checkPersonalized();
+            this.personalized = personalized;
         }
-        viewer.closeInventory();
+        return personalized;
     }
 
     /**
-     * Destroy this GUI. This unregisters all listeners and removes it from the GUI_MAP
+     * Drop the cached result of {@link #isPersonalized()} and of which elements are animated or dynamic.
+     * Elements call this when they changed in a way that could make their content per-player,
+     * call it yourself if you changed an element some other way.
      */
-    public void destroy() {
-        destroy(true);
+    public void invalidatePersonalized() {
+        personalized = null;
+        animationRoots = null;
+        dynamicElements = null;
     }
 
-    private void destroy(boolean closeInventories) {
-        if (closeInventories) {
-            close();
+    private boolean checkPersonalized() {
+        if (isPersonalized(titleTemplate)) {
+            return true;
         }
-        for (Inventory inventory : inventories.values()) {
-            inventory.clear();
+        for (GuiElement element : elements.values()) {
+            if (isPersonalized(element)) {
+                return true;
+            }
         }
-        inventories.clear();
-        pageNumbers.clear();
-        pageAmounts.clear();
-        listener.unregisterListeners();
-        removeFromMap();
+        GuiElement last = null;
+        for (GuiElement element : elementSlots) {
+            if (element != null && element != last && !elements.containsValue(element) && isPersonalized(element)) {
+                return true;
+            }
+            last = element;
+        }
+        return false;
+    }
+
+    private static boolean isPersonalized(GuiElement element) {
+        if (element == null) {
+            return false;
+        } else if (element instanceof GuiPageElement || element instanceof GuiBackElement) {
+            return true;
+        } else if (element instanceof DynamicGuiElement) {
+            return ((DynamicGuiElement) element).getScope() == DynamicGuiElement.Scope.PLAYER;
+        } else if (element instanceof StaticGuiElement) {
+            return isPersonalized(((StaticGuiElement) element).getTextTemplate());
+        } else if (element instanceof GuiStateElement) {
+            for (GuiStateElement.State state : ((GuiStateElement) element).getStates()) {
+                if (isPersonalized(state.getTextTemplate())) {
+                    return true;
+                }
+            }
+            return false;
+        } else if (element instanceof GuiStorageElement) {
+            return ((GuiStorageElement) element).getStorage().getSize() > element.getSlots().length;
+        } else if (element instanceof AnimatedGuiElement) {
+            for (GuiElement frame : ((AnimatedGuiElement) element).getFrames()) {
+                if (isPersonalized(frame)) {
+                    return true;
+                }
+            }
+            return false;
+        } else if (element instanceof GuiElementGroup) {
+            GuiElementGroup group = (GuiElementGroup) element;
+            if (group.hasDataSource() || group.size() > group.getSlots().length || isPersonalized(group.getFiller())) {
+                return true;
+            }
+            for (GuiElement child : group.getElements()) {
+                if (isPersonalized(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        // We don't know what other element types display
+        return true;
     }
 
     /**
-     * Add a new history entry to the end of the history
-     * @param player    The player to add the history entry for
-     * @param gui       The GUI to add to the history
+     * Check whether or not a text can differ between viewers. Placeholders that aren't known to be the same
+     * for everyone, e.g. custom ones or ones of other plugins, might be replaced per player.
+     * @param template  The compiled text or <code>null</code>
+     * @return Whether or not the text contains any placeholder that isn't global
      */
-    public static void addHistory(HumanEntity player, InventoryGui gui) {
-        GUI_HISTORY.putIfAbsent(player.getUniqueId(), new ArrayDeque<>());
-        Deque<InventoryGui> history = getHistory(player);
-        if (history.peekLast() != gui) {
-            history.add(gui);
+    private static boolean isPersonalized(PlaceholderTemplate template) {
+        if (template == null) {
+            return false;
+        }
+        for (String placeholder : template.getPlaceholders()) {
+            if (!GLOBAL_PLACEHOLDERS.contains(placeholder)) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
-     * Get the history of a player
-     * @param player    The player to get the history for
-     * @return          The history as a deque of InventoryGuis;
-     *                  returns an empty one and not <code>null</code>!
+     * Get whether or not this GUI only writes the slots whose item changed since the last draw
+     * @return Whether or not diff drawing is enabled
      */
-    public static Deque<InventoryGui> getHistory(HumanEntity player) {
-        return GUI_HISTORY.getOrDefault(player.getUniqueId(), new ArrayDeque<>());
+    public boolean isDiffDraw() {
+        return diffDraw;
     }
 
     /**
-     * Go back one entry in the history
-     * @param player    The player to show the previous gui to
-     * @return          <code>true</code> if there was a gui to show; <code>false</code> if not
+     * Set whether or not this GUI should only write the slots whose item changed since the last draw instead of
+     * clearing the inventory and setting every slot. This remembers the last drawn item per slot and viewer.
+     * Slots of {@link GuiStorageElement}s are always written.
+     * @param diffDraw Whether or not to enable diff drawing
      */
-    public static boolean goBack(HumanEntity player) {
-        Deque<InventoryGui> history = getHistory(player);
-        history.pollLast();
-        if (history.isEmpty()) {
-            return false;
-        }
-        InventoryGui previous = history.peekLast();
-        if (previous != null) {
-            previous.show(player, false);
+    public void setDiffDraw(boolean diffDraw) {
+        this.diffDraw = diffDraw;
+        if (!diffDraw) {
+            renderedItems.clear();
         }
-        return true;
     }
 
     /**
-     * Clear the history of a player
-     * @param player    The player to clear the history for
-     * @return          The history
+     * Get the amount of slots that were written to the inventories of this GUI while drawing
+     * @return The amount of written slots
      */
-    public static Deque<InventoryGui> clearHistory(HumanEntity player) {
-        Deque<InventoryGui> previous = GUI_HISTORY.remove(player.getUniqueId());
-        return previous != null ? previous : new ArrayDeque<>();
+    public long getWrittenSlots() {
+        return writtenSlots.get();
     }
 
     /**
-     * Get the plugin which owns this GUI. Should be the one who created it.
-     * @return The plugin which owns this GUI
+     * Get the amount of slots that were skipped while drawing as their item didn't change, see {@link #setDiffDraw(boolean)}
+     * @return The amount of skipped slots
      */
-    public JavaPlugin getPlugin() {
-        return plugin;
+    public long getSkippedSlots() {
+        return skippedSlots.get();
     }
 
     /**
-     * Get the helper class which will create the custom inventory for this gui.
-     * Simply uses {@link org.bukkit.Bukkit#createInventory(InventoryHolder, int, String)} by default.
-     * @return The used inventory creator instance
+     * Get the limiter for the clicks of each player in this GUI
+     * @return The click limiter or <code>null</code> if clicks aren't limited
      */
-    public InventoryCreator getInventoryCreator() {
-        return creator;
+    public ClickLimiter getClickLimiter() {
+        return clickLimiter;
     }
 
     /**
-     * Set the helper class which will create the custom inventory for this gui.
-     * Can be used to create more special inventories.
-     * Simply uses {@link org.bukkit.Bukkit#createInventory(InventoryHolder, int, String)} by default.
+     * Set a limiter for the clicks of each player in this GUI. It is checked together with the limiters of the clicked
+     * element and the elements that it is nested in, and only for clicks that would run an action. A click only counts
+     * towards the limits if all of them let it through, otherwise it is cancelled without running the action.
+     * The same limiter can be used for multiple GUIs to limit the clicks of a player across them.
+     * @param clickLimiter  The click limiter or <code>null</code> to not limit clicks
+     */
+    public void setClickLimiter(ClickLimiter clickLimiter) {
+        this.clickLimiter = clickLimiter;
+    }
+
+    /**
+     * Get the amount of clicks in this GUI that were dropped by the click limiters of the GUI or its elements
+     * @return The amount of dropped clicks
+     */
+    public long getDroppedClicks() {
+        return droppedClicks.get();
+    }
+
+    /**
+     * Get the id that the metrics of this GUI are recorded under
+     * @return The metrics id, the name of the GUI's class if none was set
+     */
+    public String getMetricsId() {
+        return metricsId != null ? metricsId : getClass().getName();
+    }
+
+    /**
+     * Set the id that the metrics of this GUI are recorded under. GUIs with the same id share their metrics.
+     * The id should not depend on the viewer or other changing content as every id keeps its own metrics,
+     * see {@link GuiMetrics#MAX_IDS}.
+     * @param metricsId The metrics id or <code>null</code> to use the name of the GUI's class
+     */
+    public void setMetricsId(String metricsId) {
+        this.metricsId = metricsId;
+    }
+
+    /**
+     * Get the performance metrics of this GUI
+     * @return The metrics or <code>null</code> if metrics are disabled, see {@link GuiMetrics#setEnabled(boolean)}
+     */
+    public GuiMetrics getMetrics() {
+        return GuiMetrics.isEnabled() ? GuiMetrics.get(getMetricsId()) : null;
+    }
+
+    /**
+     * Schedule a task on a {@link HumanEntity}/main thread to run on the next tick.
+     * Tasks are batched by the plugin's {@link TaskScheduler}.
+     * @param entity the human entity to schedule a task on
+     * @param task the task to be run
+     */
+    protected void runTask(HumanEntity entity, Runnable task) {
+        scheduler.run(entity, task);
+    }
+
+    /**
+     * Schedule a task on the global region/main thread to run on the next tick
+     * @param task the task to be run
+     */
+    protected void runTask(Runnable task) {
+        scheduler.run(task);
+    }
+
+    /**
+     * Run a task asynchronously on the plugin's async scheduler
+     * @param task the task to be run
+     */
+    protected void runTaskAsync(Runnable task) {
+        scheduler.runAsync(task);
+    }
+
+    /**
+     * Schedule a task on a {@link HumanEntity} to run on the next tick
+     * Alternatively if the current thread is already the right thread, execute immediately
+     * @param entity the human entity to schedule a task on
+     * @param task the task to be run
+     */
+    protected void runTaskOrNow(HumanEntity entity, Runnable task) {
+        scheduler.runOrNow(entity, task);
+    }
+
+    /**
+     * Update all dynamic elements in a collection of elements.
+     * @param who       The player to update the elements for
+     * @param elements  The elements to update
+     */
+    public static void updateElements(HumanEntity who, Collection<GuiElement> elements) {
+        for (GuiElement element : elements) {
+            if (element instanceof DynamicGuiElement) {
+                ((DynamicGuiElement) element).update(who);
+            } else if (element instanceof GuiElementGroup) {
+                updateElements(who, ((GuiElementGroup) element).getElements());
+            }
+        }
+    }
+
+    /**
+     * Refresh the dynamic elements whose refresh interval passed for all players that currently view this GUI
+     * @return Whether or not the GUI still needs the refresh task, see {@link #needsRefreshTask()}
+     */
+    private boolean refreshDynamicElements() {
+        if (!needsRefreshTask()) {
+            return false;
+        }
+        for (UUID playerId : inventories.keySet()) {
+            Player player = playerId != null ? plugin.getServer().getPlayer(playerId) : null;
+            if (player != null && needsRefresh(player, elements.values())) {
+                runTask(player, () -> refreshDynamicElements(player, elements.values()));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether or not the refresh task needs to run for this GUI, that is while it is viewed and has dynamic elements
+     * @return Whether or not the GUI needs the refresh task
+     */
+    private boolean needsRefreshTask() {
+        if (inventories.isEmpty()) {
+            return false;
+        }
+        Boolean dynamicElements = this.dynamicElements;
+        if (dynamicElements == null) {
+            dynamicElements = containsDynamic(elements.values());
+            this.dynamicElements = dynamicElements;
+        }
+        return dynamicElements;
+    }
+
+    private static boolean containsDynamic(Collection<GuiElement> elements) {
+        for (GuiElement element : elements) {
+            if (element instanceof DynamicGuiElement
+                    || element instanceof GuiElementGroup && containsDynamic(((GuiElementGroup) element).getElements())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean needsRefresh(HumanEntity who, Collection<GuiElement> elements) {
+        for (GuiElement element : elements) {
+            if (element instanceof DynamicGuiElement) {
+                if (((DynamicGuiElement) element).needsRefresh(who)) {
+                    return true;
+                }
+            } else if (element instanceof GuiElementGroup && needsRefresh(who, ((GuiElementGroup) element).getElements())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void refreshDynamicElements(HumanEntity who, Collection<GuiElement> elements) {
+        for (GuiElement element : elements) {
+            if (element instanceof DynamicGuiElement) {
+                if (((DynamicGuiElement) element).needsRefresh(who)) {
+                    ((DynamicGuiElement) element).update(who);
+                    requestDrawSlots(who, element.getSlots());
+                }
+            } else if (element instanceof GuiElementGroup) {
+                refreshDynamicElements(who, ((GuiElementGroup) element).getElements());
+            }
+        }
+    }
+
+    /**
+     * Advance the animated elements of this GUI by one tick and redraw the slots whose frame changed.
+     * This includes animations in groups, in other animations and the ones that dynamic elements cached for
+     * the viewers. Does nothing while nobody is viewing the GUI so that the animations pause.
+     * @param tick  The number of the animator's tick
+     * @return Whether or not the GUI still needs the animation task, see {@link #needsAnimationTask()}
+     */
+    private boolean animate(long tick) {
+        if (inventories.isEmpty()) {
+            return false;
+        }
+        List<GuiElement> roots = getAnimationRoots();
+        if (roots.isEmpty()) {
+            return false;
+        }
+        GuiElement filler = getFiller();
+        boolean animated = false;
+        for (UUID playerId : inventories.keySet()) {
+            Player player = playerId != null ? plugin.getServer().getPlayer(playerId) : null;
+            if (player == null) {
+                continue;
+            }
+            for (GuiElement element : roots) {
+                if (!isAnimated(element, player)) {
+                    continue;
+                }
+                animated = true;
+                // Animations are only advanced once per tick so every viewer sees the same change
+                if (tickAnimations(element, tick, player)) {
+                    if (element == filler) {
+                        // The filler is also displayed in empty slots so a new frame needs to redraw everything
+                        requestDraw(player, false);
+                    } else {
+                        requestDrawSlots(player, element.getSlots());
+                    }
+                }
+            }
+        }
+        return animated;
+    }
+
+    /**
+     * Check whether or not the animation task needs to run for this GUI, that is while it is viewed and
+     * has animated elements, see {@link #animate(long)}
+     * @return Whether or not the GUI needs the animation task
+     */
+    private boolean needsAnimationTask() {
+        if (inventories.isEmpty()) {
+            return false;
+        }
+        List<GuiElement> roots = getAnimationRoots();
+        if (roots.isEmpty()) {
+            return false;
+        }
+        for (UUID playerId : inventories.keySet()) {
+            Player player = playerId != null ? plugin.getServer().getPlayer(playerId) : null;
+            if (player != null) {
+                for (GuiElement element : roots) {
+                    if (isAnimated(element, player)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the top level elements which can contain animations. The elements that dynamic elements query
+     * are only known per player so those are always included.
+     * @return The elements, cached until the elements change
+     */
+    private List<GuiElement> getAnimationRoots() {
+        List<GuiElement> roots = animationRoots;
+        if (roots == null) {
+            Set<GuiElement> topLevel = new LinkedHashSet<>(elements.values());
+            for (GuiElement element : elementSlots) {
+                if (element != null) {
+                    topLevel.add(element);
+                }
+            }
+            roots = new ArrayList<>();
+            for (GuiElement element : topLevel) {
+                if (mayAnimate(element)) {
+                    roots.add(element);
+                }
+            }
+            animationRoots = roots;
+        }
+        return roots;
+    }
+
+    private static boolean mayAnimate(GuiElement element) {
+        if (element instanceof AnimatedGuiElement || element instanceof DynamicGuiElement) {
+            return true;
+        }
+        if (element instanceof GuiElementGroup) {
+            GuiElementGroup group = (GuiElementGroup) element;
+            if (mayAnimate(group.getFiller())) {
+                return true;
+            }
+            for (GuiElement child : group.getElements()) {
+                if (mayAnimate(child)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether or not an element is or contains an animated element for a player
+     * @param element   The element to check
+     * @param who       The player, dynamic elements are checked with the element that they cached for them
+     * @return Whether or not the element is animated
+     */
+    private static boolean isAnimated(GuiElement element, HumanEntity who) {
+        if (element instanceof AnimatedGuiElement) {
+            return true;
+        }
+        if (element instanceof DynamicGuiElement) {
+            return isAnimated(((DynamicGuiElement) element).peekCachedElement(who), who);
+        }
+        if (element instanceof GuiElementGroup) {
+            GuiElementGroup group = (GuiElementGroup) element;
+            if (isAnimated(group.getFiller(), who)) {
+                return true;
+            }
+            for (GuiElement child : group.getElements()) {
+                if (isAnimated(child, who)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Advance all animated elements in an element by one tick
+     * @param element   The element
+     * @param tick      The number of the animator's tick
+     * @param who       The player, dynamic elements advance the element that they cached for them
+     * @return Whether or not any displayed frame changed
+     */
+    private static boolean tickAnimations(GuiElement element, long tick, HumanEntity who) {
+        if (element instanceof AnimatedGuiElement) {
+            AnimatedGuiElement animated = (AnimatedGuiElement) element;
+            boolean changed = animated.tick(tick);
+            return tickAnimations(animated.getFrame(), tick, who) || changed;
+        }
+        if (element instanceof DynamicGuiElement) {
+            return tickAnimations(((DynamicGuiElement) element).peekCachedElement(who), tick, who);
+        }
+        if (element instanceof GuiElementGroup) {
+            GuiElementGroup group = (GuiElementGroup) element;
+            boolean changed = tickAnimations(group.getFiller(), tick, who);
+            for (GuiElement child : group.getElements()) {
+                changed |= tickAnimations(child, tick, who);
+            }
+            return changed;
+        }
+        return false;
+    }
+
+    /**
+     * Remove the cached dynamic elements of a player
+     * @param who       The player to remove the elements for
+     * @param elements  The elements to check
+     */
+    private static void evictDynamicElements(HumanEntity who, Collection<GuiElement> elements) {
+        for (GuiElement element : elements) {
+            if (element instanceof DynamicGuiElement) {
+                ((DynamicGuiElement) element).removeCachedElement(who);
+            } else if (element instanceof GuiElementGroup) {
+                evictDynamicElements(who, ((GuiElementGroup) element).getElements());
+            }
+        }
+    }
+
+    private static void clearDynamicElements(Collection<GuiElement> elements) {
+        for (GuiElement element : elements) {
+            if (element instanceof DynamicGuiElement) {
+                ((DynamicGuiElement) element).clearCache();
+            } else if (element instanceof GuiElementGroup) {
+                clearDynamicElements(((GuiElementGroup) element).getElements());
+            }
+        }
+    }
+
+    /**
+     * Closes the GUI for everyone viewing it
+     */
+    public void close() {
+        close(true);
+    }
+    
+    /**
+     * Close the GUI for everyone viewing it
+     * @param clearHistory  Whether to close the GUI completely (by clearing the history)
+     */
+    public void close(boolean clearHistory) {
+        for (Inventory inventory : inventories.values()) {
+            for (HumanEntity viewer : new ArrayList<>(inventory.getViewers())) {
+                close(viewer, clearHistory);
+            }
+        }
+    }
+
+    /**
+     * Closes the GUI for a specific viewer it
+     * @param viewer    The player viewing it
+     */
+    public void close(HumanEntity viewer) {
+        close(viewer, true);
+    }
+
+    /**
+     * Closes the GUI for a specific viewer it
+     * @param viewer        The player viewing it
+     * @param clearHistory  Whether to close the GUI completely (by clearing the history)
+     */
+    public void close(HumanEntity viewer, boolean clearHistory) {
+        if (clearHistory) {
+            clearHistory(viewer);
+        }
+        viewer.closeInventory();
+    }
+
+    /**
+     * Destroy this GUI. This unregisters all listeners and removes it from the GUI_MAP
+     */
+    public void destroy() {
+        destroy(true);
+    }
+
+    private void destroy(boolean closeInventories) {
+        if (closeInventories) {
+            close();
+        }
+        for (Inventory inventory : inventories.values()) {
+            inventory.clear();
+        }
+        inventories.clear();
+        pageNumbers.clear();
+        renderedItems.clear();
+        sentTitles.clear();
+        pendingDraws.clear();
+        pageAmounts.clear();
+        sharedInventoryInstance = null;
+        clearDynamicElements(getElements());
+        GuiListener.unregister(this);
+        removeFromMap();
+    }
+
+    /**
+     * Add a new history entry to the end of the history
+     * @param player    The player to add the history entry for
+     * @param gui       The GUI to add to the history
+     */
+    public static void addHistory(HumanEntity player, InventoryGui gui) {
+        GUI_HISTORY.putIfAbsent(player.getUniqueId(), new ArrayDeque<>());
+        Deque<InventoryGui> history = getHistory(player);
+        if (history.peekLast() != gui) {
+            history.add(gui);
+        }
+    }
+
+    /**
+     * Get the history of a player
+     * @param player    The player to get the history for
+     * @return          The history as a deque of InventoryGuis;
+     *                  returns an empty one and not <code>null</code>!
+     */
+    public static Deque<InventoryGui> getHistory(HumanEntity player) {
+        return GUI_HISTORY.getOrDefault(player.getUniqueId(), new ArrayDeque<>());
+    }
+
+    /**
+     * Go back one entry in the history
+     * @param player    The player to show the previous gui to
+     * @return          <code>true</code> if there was a gui to show; <code>false</code> if not
+     */
+    public static boolean goBack(HumanEntity player) {
+        Deque<InventoryGui> history = getHistory(player);
+        history.pollLast();
+        if (history.isEmpty()) {
+            return false;
+        }
+        InventoryGui previous = history.peekLast();
+        if (previous != null) {
+            previous.show(player, false);
+        }
+        return true;
+    }
+
+    /**
+     * Clear the history of a player
+     * @param player    The player to clear the history for
+     * @return          The history
+     */
+    public static Deque<InventoryGui> clearHistory(HumanEntity player) {
+        Deque<InventoryGui> previous = GUI_HISTORY.remove(player.getUniqueId());
+        return previous != null ? previous : new ArrayDeque<>();
+    }
+
+    /**
+     * Get the plugin which owns this GUI. Should be the one who created it.
+     * @return The plugin which owns this GUI
+     */
+    public JavaPlugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Get the helper class which will create the custom inventory for this gui.
+     * Simply uses {@link org.bukkit.Bukkit#createInventory(InventoryHolder, int, String)} by default.
+     * @return The used inventory creator instance
+     */
+    public InventoryCreator getInventoryCreator() {
+        return creator;
+    }
+
+    /**
+     * Set the helper class which will create the custom inventory for this gui.
+     * Can be used to create more special inventories.
+     * Simply uses {@link org.bukkit.Bukkit#createInventory(InventoryHolder, int, String)} by default.
      * Should return a container inventory that can hold the size. Special inventories will break stuff.
+     * The inventory should use a {@link Holder} of this gui so that events can be resolved to it directly,
+     * otherwise only the gui that the player has open will receive them.
      * @param inventoryCreator The new inventory creator instance
      */
     public void setInventoryCreator(InventoryCreator inventoryCreator) {
@@ -1247,7 +2089,9 @@ public class InventoryGui implements Listener {
      */
     public void setTitle(String title) {
         this.title = title;
+        this.titleTemplate = title != null ? PlaceholderTemplate.compile(title) : null;
         this.titleUpdated = true;
+        invalidatePersonalized();
     }
 
     /**
@@ -1268,8 +2112,31 @@ public class InventoryGui implements Listener {
     public void setTitle(String title, HumanEntity player, boolean dynamic) {
         setTitle(title);
         if (dynamic) {
-            InventoryUpdater.updateInventory((Player) player, title);
+            updateTitle(player);
+        }
+    }
+
+    /**
+     * Send the current title to a player that has this GUI open without recreating the inventory.
+     * Only the title packet and a resync of the contents are sent.
+     * @param player    The player to update the title for
+     * @return Whether or not the title was updated; <code>false</code> if the player doesn't view this GUI's inventory
+     *          or the title can't be changed on this server
+     */
+    public boolean updateTitle(HumanEntity player) {
+        if (!(player instanceof Player)) {
+            return false;
+        }
+        Inventory inventory = getInventory(player);
+        if (inventory == null || player.getOpenInventory().getTopInventory() != inventory) {
+            return false;
         }
+        String title = this.title;
+        if (title == null || !InventoryUpdater.updateInventory((Player) player, renderTitle(player))) {
+            return false;
+        }
+        sentTitles.put(player.getUniqueId(), title);
+        return true;
     }
 
     /**
@@ -1334,6 +2201,8 @@ public class InventoryGui implements Listener {
      * @return The resulting click object
      */
     private GuiElement.Click handleInteract(InventoryInteractEvent event, ClickType clickType, int slot, ItemStack cursor) {
+        GuiMetrics metrics = getMetrics();
+        long start = metrics != null ? System.nanoTime() : 0;
         GuiElement.Action action = null;
         GuiElement element = null;
         if (slot >= 0) {
@@ -1358,6 +2227,14 @@ public class InventoryGui implements Listener {
             }
             return null;
         }
+        if (action != null && !tryClick(event.getWhoClicked(), element, slot)) {
+            // Too many clicks, drop this one before the action can run
+            event.setCancelled(true);
+            if (event.getWhoClicked() instanceof Player) {
+                ((Player) event.getWhoClicked()).updateInventory();
+            }
+            return null;
+        }
         try {
             GuiElement.Click click = new GuiElement.Click(this, slot, clickType, cursor, element, event);
             if (action == null || action.onClick(click)) {
@@ -1367,15 +2244,25 @@ public class InventoryGui implements Listener {
                 }
             }
             if (action != null) {
-                // Let's assume something changed and re-draw all currently shown inventories
-                for (UUID playerId : inventories.keySet()) {
-                    if (!event.getWhoClicked().getUniqueId().equals(playerId)) {
-                        Player player = plugin.getServer().getPlayer(playerId);
-                        if (player != null) {
-                            draw(player, false);
+                // Only redraw what the action marked as changed, if it didn't let's assume everything changed
+                int[] invalidated = click.getInvalidatedSlots();
+                if (invalidated == null || invalidated.length > 0) {
+                    for (UUID playerId : inventories.keySet()) {
+                        if (playerId != null && !event.getWhoClicked().getUniqueId().equals(playerId)) {
+                            Player player = plugin.getServer().getPlayer(playerId);
+                            if (player != null) {
+                                if (invalidated != null) {
+                                    requestDrawSlots(player, invalidated);
+                                } else {
+                                    requestDraw(player, false);
+                                }
+                            }
                         }
                     }
                 }
+                if (metrics != null) {
+                    metrics.getClickLatency().record(System.nanoTime() - start);
+                }
                 return click;
             }
         } catch (Throwable t) {
@@ -1383,15 +2270,297 @@ public class InventoryGui implements Listener {
             if (event.getWhoClicked() instanceof Player) {
                 ((Player) event.getWhoClicked()).updateInventory();
             }
-            plugin.getLogger().log(Level.SEVERE, "Exception while trying to run action for click on "
-                    + (element != null ? element.getClass().getSimpleName() : "empty element")
-                    + " in slot " + slot + " of " + getTitle() + " GUI!");
-            t.printStackTrace();
+            plugin.getLogger().log(Level.SEVERE, "Exception while trying to run action for click on "
+                    + (element != null ? element.getClass().getSimpleName() : "empty element")
+                    + " in slot " + slot + " of " + getTitle() + " GUI!");
+            t.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Check the click limiters of the GUI and of the clicked element. All limiters are checked before the click is
+     * counted so that a limiter which drops it doesn't use up the limits of the others.
+     * @param who       The player that clicked
+     * @param element   The clicked element or <code>null</code>
+     * @param slot      The clicked slot
+     * @return Whether or not the click should run the action
+     */
+    private boolean tryClick(HumanEntity who, GuiElement element, int slot) {
+        ClickLimiter dropping = getDroppingLimiter(who, element, slot);
+        if (dropping == null && clickLimiter != null && !clickLimiter.canClick(who)) {
+            dropping = clickLimiter;
+        }
+        if (dropping != null) {
+            dropping.drop(who);
+            droppedClicks.incrementAndGet();
+            return false;
+        }
+        // Only fails if another click of the player was counted in the meantime
+        if (!tryElementClick(who, element, slot) || (clickLimiter != null && !clickLimiter.tryClick(who))) {
+            droppedClicks.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the element that a click on an element goes to next, e.g. the element of a group in the clicked slot
+     * @param who       The player that clicked
+     * @param element   The element
+     * @param slot      The clicked slot
+     * @return The nested element or <code>null</code> if the element doesn't contain others
+     */
+    private GuiElement getNestedElement(HumanEntity who, GuiElement element, int slot) {
+        if (element instanceof GuiElementGroup) {
+            return ((GuiElementGroup) element).getElement(slot, getPageNumber(who));
+        } else if (element instanceof DynamicGuiElement) {
+            return ((DynamicGuiElement) element).getCachedElement(who);
+        } else if (element instanceof AnimatedGuiElement) {
+            return ((AnimatedGuiElement) element).getFrame();
+        }
+        return null;
+    }
+
+    /**
+     * Find the click limiter of an element or of the element nested in it that the click goes to which
+     * would drop the click, innermost first. Doesn't count the click.
+     * @param who       The player that clicked
+     * @param element   The element or <code>null</code>
+     * @param slot      The clicked slot
+     * @return The limiter that would drop the click or <code>null</code> if all would let it through
+     */
+    private ClickLimiter getDroppingLimiter(HumanEntity who, GuiElement element, int slot) {
+        if (element == null) {
+            return null;
+        }
+        ClickLimiter dropping = getDroppingLimiter(who, getNestedElement(who, element, slot), slot);
+        if (dropping == null && element.getClickLimiter() != null && !element.getClickLimiter().canClick(who)) {
+            dropping = element.getClickLimiter();
+        }
+        return dropping;
+    }
+
+    /**
+     * Count the click with the click limiters of an element and of the element nested in it that the click goes to, innermost first
+     * @param who       The player that clicked
+     * @param element   The element or <code>null</code>
+     * @param slot      The clicked slot
+     * @return Whether or not all limiters let the click through
+     */
+    private boolean tryElementClick(HumanEntity who, GuiElement element, int slot) {
+        if (element == null) {
+            return true;
+        }
+        if (!tryElementClick(who, getNestedElement(who, element, slot), slot)) {
+            return false;
+        }
+        return element.getClickLimiter() == null || element.getClickLimiter().tryClick(who);
+    }
+
+    /**
+     * Forget the click limiter states of a player in this GUI and its elements
+     * @param who   The player to forget
+     */
+    private void forgetClicks(HumanEntity who) {
+        if (clickLimiter != null) {
+            clickLimiter.forget(who);
+        }
+        forgetClicks(who, elements.values());
+    }
+
+    private static void forgetClicks(HumanEntity who, Collection<GuiElement> elements) {
+        for (GuiElement element : elements) {
+            if (element == null) {
+                continue;
+            }
+            if (element.getClickLimiter() != null) {
+                element.getClickLimiter().forget(who);
+            }
+            if (element instanceof GuiElementGroup) {
+                forgetClicks(who, ((GuiElementGroup) element).getElements());
+                forgetClicks(who, Collections.singletonList(((GuiElementGroup) element).getFiller()));
+            } else if (element instanceof AnimatedGuiElement) {
+                forgetClicks(who, ((AnimatedGuiElement) element).getFrames());
+            }
+        }
+    }
+
+    /**
+     * Handle a click in an inventory that was resolved to this GUI
+     * @param event The click event
+     */
+    private void onInventoryClick(InventoryClickEvent event) {
+        if (event.getInventory().equals(getInventory(event.getWhoClicked()))) {
+
+            int slot = -1;
+            if (event.getRawSlot() < event.getView().getTopInventory().getSize()) {
+                slot = event.getRawSlot();
+            } else if (event.getAction() == InventoryAction.MOVE_TO_OTHER_INVENTORY) {
+                slot = event.getInventory().firstEmpty();
+            }
+
+            // Cache the original cursor
+            ItemStack originalCursor = event.getCursor() != null ? event.getCursor().clone() : null;
+
+            // Forward the click
+            GuiElement.Click click = handleInteract(event, event.getClick(), slot, event.getCursor());
+
+            // Update the cursor if necessary
+            if (click != null && (originalCursor == null || !originalCursor.equals(click.getCursor()))) {
+                event.setCursor(click.getCursor());
+            }
+
+            // The click might have changed the content of the inventory
+            if (!event.isCancelled()) {
+                forgetRendered(event.getWhoClicked());
+            }
+        }
+    }
+
+    /**
+     * Handle a drag in an inventory that was resolved to this GUI
+     * @param event The drag event
+     */
+    private void onInventoryDrag(InventoryDragEvent event) {
+        if (isDragEvent()) {
+            Inventory inventory = getInventory(event.getWhoClicked());
+            if (event.getInventory().equals(inventory)) {
+                forgetRendered(event.getWhoClicked());
+                // Check if we only drag over one slot if so then handle that as a click with the element
+                if (event.getRawSlots().size() == 1) {
+                    int slot = event.getRawSlots().iterator().next();
+                    if (slot < event.getView().getTopInventory().getSize()) {
+                        GuiElement.Click click = handleInteract(
+                                event,
+                                // Map drag type to the button that caused it
+                                event.getType() == DragType.SINGLE ? ClickType.RIGHT : ClickType.LEFT,
+                                slot,
+                                event.getOldCursor()
+                        );
+
+                        // Update the cursor if necessary
+                        if (click != null && !event.getOldCursor().equals(click.getCursor())) {
+                            event.setCursor(click.getCursor());
+                        }
+                    }
+                    return;
+                }
+
+                int rest = 0;
+                Map<Integer, ItemStack> resetSlots = new HashMap<>();
+                for (Map.Entry<Integer, ItemStack> items : event.getNewItems().entrySet()) {
+                    if (items.getKey() < inventory.getSize()) {
+                        GuiElement element = getElement(items.getKey());
+                        if (!(element instanceof GuiStorageElement)
+                                || !((GuiStorageElement) element).setStorageItem(event.getWhoClicked(), items.getKey(), items.getValue())) {
+                            ItemStack slotItem = event.getInventory().getItem(items.getKey());
+                            if (!items.getValue().isSimilar(slotItem)) {
+                                rest += items.getValue().getAmount();
+                            } else if (slotItem != null) {
+                                rest += items.getValue().getAmount() - slotItem.getAmount();
+                            }
+                            //items.getValue().setAmount(0); // can't change resulting items :/
+                            resetSlots.put(items.getKey(), event.getInventory().getItem(items.getKey())); // reset them manually
+                        }
+                    }
+                }
+
+                runTask(event.getWhoClicked(), () -> {
+                    for (Map.Entry<Integer, ItemStack> items : resetSlots.entrySet()) {
+                        event.getView().getTopInventory().setItem(items.getKey(), items.getValue());
+                    }
+                });
+
+                if (rest > 0) {
+                    int cursorAmount = event.getCursor() != null ? event.getCursor().getAmount() : 0;
+                    if (!event.getOldCursor().isSimilar(event.getCursor())) {
+                        event.setCursor(event.getOldCursor());
+                        cursorAmount = 0;
+                    }
+                    int newCursorAmount = cursorAmount + rest;
+                    if (newCursorAmount <= event.getCursor().getMaxStackSize()) {
+                        event.getCursor().setAmount(newCursorAmount);
+                    } else {
+                        event.getCursor().setAmount(event.getCursor().getMaxStackSize());
+                        ItemStack add = event.getCursor().clone();
+                        int addAmount = newCursorAmount - event.getCursor().getMaxStackSize();
+                        if (addAmount > 0) {
+                            add.setAmount(addAmount);
+                            for (ItemStack drop : event.getWhoClicked().getInventory().addItem(add).values()) {
+                                event.getWhoClicked().getLocation().getWorld().dropItem(event.getWhoClicked().getLocation(), drop);
+                            }
+                        }
+                    }
+                }
+            }
+        } else {
+            HumanEntity humanEntity = event.getWhoClicked();
+            if (!(humanEntity instanceof Player)) {
+                return;
+            }
+
+            String title = event.getView().getTitle();
+            if (title.equals(getTitle())) {
+                event.setCancelled(true);
+            }
+        }
+    }
+
+    /**
+     * Handle the closing of an inventory that was resolved to this GUI
+     * @param event The close event
+     */
+    private void onInventoryClose(InventoryCloseEvent event) {
+        Inventory inventory = getInventory(event.getPlayer());
+        if (event.getInventory().equals(inventory)) {
+            // go back. that checks if the player is in gui and has history
+            if (InventoryGui.this.equals(getOpen(event.getPlayer()))) {
+                if (closeAction == null || closeAction.onClose(new Close(event.getPlayer(), InventoryGui.this, event))) {
+                    goBack(event.getPlayer());
+                } else {
+                    clearHistory(event.getPlayer());
+                }
+            }
+            if (inventories.size() <= 1) {
+                destroy(false);
+            } else {
+                inventories.remove(event.getPlayer().getUniqueId());
+                if (!inventories.containsValue(inventory)) {
+                    // Nobody else uses this inventory, clear it and close it for anyone who might still see it
+                    inventory.clear();
+                    for (HumanEntity viewer : new ArrayList<>(inventory.getViewers())) {
+                        if (viewer != event.getPlayer()) {
+                            viewer.closeInventory();
+                        }
+                    }
+                    if (inventory == sharedInventoryInstance) {
+                        sharedInventoryInstance = null;
+                        renderedItems.remove(SHARED_RENDER_KEY);
+                    }
+                }
+                pageAmounts.remove(event.getPlayer().getUniqueId());
+                pageNumbers.remove(event.getPlayer().getUniqueId());
+                renderedItems.remove(event.getPlayer().getUniqueId());
+                sentTitles.remove(event.getPlayer().getUniqueId());
+                pendingDraws.remove(event.getPlayer().getUniqueId());
+                evictDynamicElements(event.getPlayer(), getElements());
+            }
+        }
+    }
+
+    /**
+     * Handle a hand item swap while an inventory of this GUI is open
+     * @param event The swap event
+     */
+    private void onSwapHandItems(PlayerSwapHandItemsEvent event) {
+        Inventory inventory = getInventory(event.getPlayer());
+        if (event.getPlayer().getOpenInventory().getTopInventory().equals(inventory)) {
+            event.setCancelled(true);
         }
-        return null;
     }
 
-    private abstract class UnregisterableListener implements Listener {
+    private static abstract class UnregisterableListener implements Listener {
         private final List<UnregisterableListener> listeners;
         private boolean listenersRegistered = false;
 
@@ -1412,13 +2581,13 @@ public class InventoryGui implements Listener {
             this.listeners = Collections.unmodifiableList(listeners);
         }
 
-        protected void registerListeners() {
+        protected void registerListeners(JavaPlugin plugin) {
             if (listenersRegistered) {
                 return;
             }
             plugin.getServer().getPluginManager().registerEvents(this, plugin);
             for (UnregisterableListener listener : listeners) {
-                listener.registerListeners();
+                listener.registerListeners(plugin);
             }
             listenersRegistered = true;
         }
@@ -1432,7 +2601,7 @@ public class InventoryGui implements Listener {
         }
     }
 
-    private abstract class OptionalListener extends UnregisterableListener {
+    private static abstract class OptionalListener extends UnregisterableListener {
         private boolean isCompatible() {
             try {
                 getClass().getMethods();
@@ -1445,188 +2614,284 @@ public class InventoryGui implements Listener {
     }
 
     /**
-     * All the listeners that InventoryGui needs to work
+     * A draw of a viewer that is waiting to run on the next tick
      */
-    private class GuiListener extends UnregisterableListener {
+    private static class PendingDraw {
+        private boolean updateDynamic;
+        private BitSet slots; // null means the whole GUI
 
-        @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
-        private void onInventoryClick(InventoryClickEvent event) {
-            if (event.getInventory().equals(getInventory(event.getWhoClicked()))) {
+        private PendingDraw(boolean updateDynamic, BitSet slots) {
+            this.updateDynamic = updateDynamic;
+            this.slots = slots != null ? (BitSet) slots.clone() : null;
+        }
 
-                int slot = -1;
-                if (event.getRawSlot() < event.getView().getTopInventory().getSize()) {
-                    slot = event.getRawSlot();
-                } else if (event.getAction() == InventoryAction.MOVE_TO_OTHER_INVENTORY) {
-                    slot = event.getInventory().firstEmpty();
+        private void merge(boolean updateDynamic, BitSet slots) {
+            this.updateDynamic |= updateDynamic;
+            if (this.slots != null) {
+                if (slots == null) {
+                    this.slots = null;
+                } else {
+                    this.slots.or(slots);
                 }
+            }
+        }
+    }
 
-                // Cache the original cursor
-                ItemStack originalCursor = event.getCursor() != null ? event.getCursor().clone() : null;
+    /**
+     * All the listeners that InventoryGui needs to work. There is only one instance per plugin which
+     * dispatches the events to the GUI that they belong to instead of every GUI listening to every event.
+     */
+    private static class GuiListener extends UnregisterableListener {
+        private final static Map<JavaPlugin, GuiListener> LISTENERS = new ConcurrentHashMap<>();
+        private final static long REFRESH_PERIOD = 5; // ticks
 
-                // Forward the click
-                GuiElement.Click click = handleInteract(event, event.getClick(), slot, event.getCursor());
+        private final JavaPlugin plugin;
+        private final Set<InventoryGui> guis = ConcurrentHashMap.newKeySet();
+        private final AtomicLong ticks = new AtomicLong();
+        private volatile Runnable cancelRefreshTask = null;
+        private volatile Runnable cancelAnimationTask = null;
 
-                // Update the cursor if necessary
-                if (click != null && (originalCursor == null || !originalCursor.equals(click.getCursor()))) {
-                    event.setCursor(click.getCursor());
-                }
-            } else if (hasRealOwner() && owner.equals(event.getInventory().getHolder())) {
-                // Click into inventory by same owner but not the inventory of the GUI
-                // Assume that the underlying inventory changed and redraw the GUI
-                runTask(InventoryGui.this::draw);
+        private GuiListener(JavaPlugin plugin) {
+            this.plugin = plugin;
+        }
+
+        /**
+         * Register a GUI with the listener of its plugin. Registers that listener if it wasn't already.
+         * @param gui   The GUI to register
+         */
+        private static void register(InventoryGui gui) {
+            GuiListener listener = LISTENERS.computeIfAbsent(gui.getPlugin(), plugin -> {
+                GuiListener created = new GuiListener(plugin);
+                created.registerListeners(plugin);
+                return created;
+            });
+            listener.guis.add(gui);
+        }
+
+        /**
+         * Start the refresh and animation tasks of the plugin of a GUI if it needs them and they aren't running.
+         * Both tasks stop on their own once none of the plugin's GUIs needs them anymore.
+         * @param gui   The GUI that was drawn
+         */
+        private static void startTasks(InventoryGui gui) {
+            GuiListener listener = LISTENERS.get(gui.getPlugin());
+            if (listener == null || !listener.guis.contains(gui)) {
+                return;
+            }
+            if (listener.cancelRefreshTask == null && gui.needsRefreshTask()) {
+                listener.startRefreshTask();
+            }
+            if (listener.cancelAnimationTask == null && gui.needsAnimationTask()) {
+                listener.startAnimationTask();
             }
         }
 
-        @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
-        public void onInventoryDrag(InventoryDragEvent event) {
-            if (isDragEvent()) {
-                Inventory inventory = getInventory(event.getWhoClicked());
-                if (event.getInventory().equals(inventory)) {
-                    // Check if we only drag over one slot if so then handle that as a click with the element
-                    if (event.getRawSlots().size() == 1) {
-                        int slot = event.getRawSlots().iterator().next();
-                        if (slot < event.getView().getTopInventory().getSize()) {
-                            GuiElement.Click click = handleInteract(
-                                    event,
-                                    // Map drag type to the button that caused it
-                                    event.getType() == DragType.SINGLE ? ClickType.RIGHT : ClickType.LEFT,
-                                    slot,
-                                    event.getOldCursor()
-                            );
-
-                            // Update the cursor if necessary
-                            if (click != null && !event.getOldCursor().equals(click.getCursor())) {
-                                event.setCursor(click.getCursor());
-                            }
-                        }
-                        return;
-                    }
+        /**
+         * Remove a GUI from the listener of its plugin so that it will no longer receive events
+         * @param gui   The GUI to unregister
+         */
+        private static void unregister(InventoryGui gui) {
+            GuiListener listener = LISTENERS.get(gui.getPlugin());
+            if (listener != null) {
+                listener.guis.remove(gui);
+            }
+        }
 
-                    int rest = 0;
-                    Map<Integer, ItemStack> resetSlots = new HashMap<>();
-                    for (Map.Entry<Integer, ItemStack> items : event.getNewItems().entrySet()) {
-                        if (items.getKey() < inventory.getSize()) {
-                            GuiElement element = getElement(items.getKey());
-                            if (!(element instanceof GuiStorageElement)
-                                    || !((GuiStorageElement) element).setStorageItem(event.getWhoClicked(), items.getKey(), items.getValue())) {
-                                ItemStack slotItem = event.getInventory().getItem(items.getKey());
-                                if (!items.getValue().isSimilar(slotItem)) {
-                                    rest += items.getValue().getAmount();
-                                } else if (slotItem != null) {
-                                    rest += items.getValue().getAmount() - slotItem.getAmount();
-                                }
-                                //items.getValue().setAmount(0); // can't change resulting items :/
-                                resetSlots.put(items.getKey(), event.getInventory().getItem(items.getKey())); // reset them manually
-                            }
-                        }
-                    }
+        /**
+         * Start the task that refreshes the dynamic elements of the GUIs for their viewers
+         */
+        private synchronized void startRefreshTask() {
+            if (cancelRefreshTask != null || !plugin.isEnabled()) {
+                return;
+            }
+            Runnable refresh = () -> {
+                boolean needed = false;
+                for (InventoryGui gui : guis) {
+                    needed |= gui.refreshDynamicElements();
+                }
+                if (!needed) {
+                    stopRefreshTask();
+                }
+            };
+            cancelRefreshTask = TaskScheduler.get(plugin).runTimer(refresh, REFRESH_PERIOD, REFRESH_PERIOD);
+        }
 
-                    runTask(event.getWhoClicked(), () -> {
-                        for (Map.Entry<Integer, ItemStack> items : resetSlots.entrySet()) {
-                            event.getView().getTopInventory().setItem(items.getKey(), items.getValue());
-                        }
-                    });
+        private synchronized void stopRefreshTask() {
+            if (cancelRefreshTask != null) {
+                cancelRefreshTask.run();
+                cancelRefreshTask = null;
+            }
+            // A GUI that needs it might have been drawn while the task was deciding to stop
+            for (InventoryGui gui : guis) {
+                if (gui.needsRefreshTask()) {
+                    startRefreshTask();
+                    return;
+                }
+            }
+        }
 
-                    if (rest > 0) {
-                        int cursorAmount = event.getCursor() != null ? event.getCursor().getAmount() : 0;
-                        if (!event.getOldCursor().isSimilar(event.getCursor())) {
-                            event.setCursor(event.getOldCursor());
-                            cursorAmount = 0;
-                        }
-                        int newCursorAmount = cursorAmount + rest;
-                        if (newCursorAmount <= event.getCursor().getMaxStackSize()) {
-                            event.getCursor().setAmount(newCursorAmount);
-                        } else {
-                            event.getCursor().setAmount(event.getCursor().getMaxStackSize());
-                            ItemStack add = event.getCursor().clone();
-                            int addAmount = newCursorAmount - event.getCursor().getMaxStackSize();
-                            if (addAmount > 0) {
-                                add.setAmount(addAmount);
-                                for (ItemStack drop : event.getWhoClicked().getInventory().addItem(add).values()) {
-                                    event.getWhoClicked().getLocation().getWorld().dropItem(event.getWhoClicked().getLocation(), drop);
-                                }
-                            }
-                        }
-                    }
+        /**
+         * Start the task that advances the animated elements of the GUIs every tick
+         */
+        private synchronized void startAnimationTask() {
+            if (cancelAnimationTask != null || !plugin.isEnabled()) {
+                return;
+            }
+            Runnable animate = () -> {
+                long tick = ticks.incrementAndGet();
+                boolean needed = false;
+                for (InventoryGui gui : guis) {
+                    needed |= gui.animate(tick);
                 }
-            } else {
-                HumanEntity humanEntity = event.getWhoClicked();
-                if (!(humanEntity instanceof Player)) {
+                if (!needed) {
+                    stopAnimationTask();
+                }
+            };
+            cancelAnimationTask = TaskScheduler.get(plugin).runTimer(animate, 1, 1);
+        }
+
+        private synchronized void stopAnimationTask() {
+            if (cancelAnimationTask != null) {
+                cancelAnimationTask.run();
+                cancelAnimationTask = null;
+            }
+            // A GUI that needs it might have been drawn while the task was deciding to stop
+            for (InventoryGui gui : guis) {
+                if (gui.needsAnimationTask()) {
+                    startAnimationTask();
                     return;
                 }
+            }
+        }
 
-                String title = event.getView().getTitle();
-                if (title.equals(getTitle())) {
-                    event.setCancelled(true);
+        /**
+         * Get the GUI of this plugin that an inventory belongs to. Uses the {@link Holder} of the inventory
+         * and falls back to the GUI that the player has open for inventories created without one.
+         * @param inventory The inventory
+         * @param who       The player that interacted with the inventory
+         * @return The GUI or <code>null</code> if the inventory isn't one of this plugin's GUIs
+         */
+        private InventoryGui getGui(Inventory inventory, HumanEntity who) {
+            InventoryHolder holder = inventory.getHolder(false);
+            InventoryGui gui = holder instanceof Holder ? ((Holder) holder).getGui() : getOpen(who);
+            return gui != null && guis.contains(gui) ? gui : null;
+        }
+
+        /**
+         * Get the GUI of this plugin that is registered to an owner
+         * @param key   The key of the owner in the GUI_MAP
+         * @return The GUI or <code>null</code> if there is none of this plugin's GUIs registered to it
+         */
+        private InventoryGui getOwnedGui(String key) {
+            InventoryGui gui = GUI_MAP.get(key);
+            return gui != null && guis.contains(gui) ? gui : null;
+        }
+
+        private InventoryGui getOwnedGui(InventoryHolder holder) {
+            if (holder instanceof Entity) {
+                return getOwnedGui(((Entity) holder).getUniqueId().toString());
+            } else if (holder instanceof BlockState) {
+                return getOwnedGui(((BlockState) holder).getLocation().toString());
+            }
+            return null;
+        }
+
+        @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+        private void onInventoryClick(InventoryClickEvent event) {
+            InventoryGui gui = getGui(event.getInventory(), event.getWhoClicked());
+            if (gui != null) {
+                gui.onInventoryClick(event);
+            } else if (!GUI_MAP.isEmpty()) {
+                // Click into inventory by same owner but not the inventory of the GUI
+                // Assume that the underlying inventory changed and redraw the GUI
+                InventoryGui owned = getOwnedGui(event.getInventory().getHolder(false));
+                if (owned != null) {
+                    owned.draw();
                 }
             }
         }
 
+        @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+        public void onInventoryDrag(InventoryDragEvent event) {
+            InventoryGui gui = getGui(event.getInventory(), event.getWhoClicked());
+            if (gui != null) {
+                gui.onInventoryDrag(event);
+            }
+        }
+
         @EventHandler(priority = EventPriority.MONITOR)
         public void onInventoryClose(InventoryCloseEvent event) {
-            Inventory inventory = getInventory(event.getPlayer());
-            if (event.getInventory().equals(inventory)) {
-                // go back. that checks if the player is in gui and has history
-                if (InventoryGui.this.equals(getOpen(event.getPlayer()))) {
-                    if (closeAction == null || closeAction.onClose(new Close(event.getPlayer(), InventoryGui.this, event))) {
-                        goBack(event.getPlayer());
-                    } else {
-                        clearHistory(event.getPlayer());
-                    }
-                }
-                if (inventories.size() <= 1) {
-                    destroy(false);
-                } else {
-                    inventory.clear();
-                    for (HumanEntity viewer : inventory.getViewers()) {
-                        if (viewer != event.getPlayer()) {
-                            viewer.closeInventory();
-                        }
-                    }
-                    inventories.remove(event.getPlayer().getUniqueId());
-                    pageAmounts.remove(event.getPlayer().getUniqueId());
-                    pageNumbers.remove(event.getPlayer().getUniqueId());
-                    for (GuiElement element : getElements()) {
-                        if (element instanceof DynamicGuiElement) {
-                            ((DynamicGuiElement) element).removeCachedElement(event.getPlayer());
-                        }
-                    }
-                }
+            InventoryGui gui = getGui(event.getInventory(), event.getPlayer());
+            if (gui != null) {
+                gui.onInventoryClose(event);
             }
         }
 
         @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
         public void onInventoryMoveItem(InventoryMoveItemEvent event) {
-            if (hasRealOwner() && (owner.equals(event.getDestination().getHolder()) || owner.equals(event.getSource().getHolder()))) {
-                runTask(InventoryGui.this::draw);
+            if (GUI_MAP.isEmpty()) {
+                return;
+            }
+            InventoryGui gui = getOwnedGui(event.getDestination().getHolder(false));
+            if (gui == null) {
+                gui = getOwnedGui(event.getSource().getHolder(false));
+            }
+            if (gui != null) {
+                gui.draw();
             }
         }
 
         @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
         public void onDispense(BlockDispenseEvent event) {
-            if (hasRealOwner() && owner.equals(event.getBlock().getState())) {
-                runTask(InventoryGui.this::draw);
+            if (GUI_MAP.isEmpty()) {
+                return;
+            }
+            InventoryGui gui = getOwnedGui(event.getBlock().getLocation().toString());
+            if (gui != null) {
+                gui.draw();
             }
         }
 
         @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
         public void onBlockBreak(BlockBreakEvent event) {
-            if (hasRealOwner() && owner.equals(event.getBlock().getState())) {
-                destroy();
+            if (GUI_MAP.isEmpty()) {
+                return;
+            }
+            InventoryGui gui = getOwnedGui(event.getBlock().getLocation().toString());
+            if (gui != null) {
+                gui.destroy();
             }
         }
 
         @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
         public void onEntityDeath(EntityDeathEvent event) {
-            if (hasRealOwner() && owner.equals(event.getEntity())) {
-                destroy();
+            if (GUI_MAP.isEmpty()) {
+                return;
+            }
+            InventoryGui gui = getOwnedGui(event.getEntity().getUniqueId().toString());
+            if (gui != null) {
+                gui.destroy();
             }
         }
 
         @EventHandler(priority = EventPriority.MONITOR)
         public void onPluginDisable(PluginDisableEvent event) {
             if (event.getPlugin() == plugin) {
-                destroy();
+                for (InventoryGui gui : new ArrayList<>(guis)) {
+                    gui.destroy();
+                }
+                LISTENERS.remove(plugin, this);
+                unregisterListeners();
+                stopRefreshTask();
+                stopAnimationTask();
+            }
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPlayerQuit(PlayerQuitEvent event) {
+            for (InventoryGui gui : guis) {
+                evictDynamicElements(event.getPlayer(), gui.getElements());
+                gui.forgetClicks(event.getPlayer());
             }
         }
 
@@ -1637,14 +2902,14 @@ public class InventoryGui implements Listener {
 
             @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
             public void onInventoryMoveItem(PlayerSwapHandItemsEvent event) {
-                Inventory inventory = getInventory(event.getPlayer());
-                if (event.getPlayer().getOpenInventory().getTopInventory().equals(inventory)) {
-                    event.setCancelled(true);
+                InventoryGui gui = getGui(event.getPlayer().getOpenInventory().getTopInventory(), event.getPlayer());
+                if (gui != null) {
+                    gui.onSwapHandItems(event);
                 }
             }
         }
     }
-    
+
     /**
      * Fake InventoryHolder for the GUIs
      */
@@ -1723,23 +2988,145 @@ public class InventoryGui implements Listener {
      */
     public void setItemText(HumanEntity player, ItemStack item, String... text) {
         if (item != null && text != null && text.length > 0) {
-            ItemMeta meta = item.getItemMeta();
-            if (meta != null) {
-                String combined = replaceVars(player, Arrays.stream(text)
-                        .map(s -> s == null ? " " : s)
-                        .filter(s -> !s.isEmpty())
-                        .collect(Collectors.joining("\n")));
-                String[] lines = combined.split("\n");
-                if (text[0] != null) {
-                    getItemNameSetter().accept(meta, lines[0]);
-                }
-                if (lines.length > 1) {
-                    getItemLoreSetter().accept(meta, Arrays.asList(Arrays.copyOfRange(lines, 1, lines.length)));
-                } else {
-                    meta.setLore(null);
-                }
-                item.setItemMeta(meta);
+            setItemText(item, getItemText(player, text), text[0] != null);
+        }
+    }
+
+    /**
+     * Get the text of an item with all placeholders replaced and empty lines filtered out.
+     * The first line is the display name, the following lines are the lore.
+     * @param player    The player viewing the GUI
+     * @param text      The text lines
+     * @return The lines joined by new line characters
+     */
+    String getItemText(HumanEntity player, String... text) {
+        return getItemText(player, compileItemText(text));
+    }
+
+    /**
+     * Get the text of an item from its compiled lines, see {@link #compileItemText(String...)}
+     * @param player    The player viewing the GUI
+     * @param template  The compiled text lines
+     * @return The lines joined by new line characters with all placeholders replaced
+     */
+    String getItemText(HumanEntity player, PlaceholderTemplate template) {
+        return render(template, placeholder -> getPlaceholderValue(player, placeholder));
+    }
+
+    /**
+     * Get a resolver of this GUI's placeholder values for a player
+     * @param player    The player viewing the GUI
+     * @return The resolver
+     */
+    PlaceholderTemplate.Resolver getPlaceholders(HumanEntity player) {
+        return placeholder -> getPlaceholderValue(player, placeholder);
+    }
+
+    /**
+     * Render the text of an item with placeholder values that were resolved before and record how long that took
+     * @param template  The compiled text lines
+     * @param values    The values in the order of {@link PlaceholderTemplate#getPlaceholders()},
+     *                  <code>null</code> if the template is constant
+     * @return The lines joined by new line characters with all placeholders replaced
+     */
+    String renderItemText(PlaceholderTemplate template, String[] values) {
+        if (template.isConstant()) {
+            return template.render(values);
+        }
+        GuiMetrics metrics = getMetrics();
+        if (metrics == null) {
+            return template.render(values);
+        }
+        long start = System.nanoTime();
+        String rendered = template.render(values);
+        metrics.getReplaceVars().record(System.nanoTime() - start);
+        return rendered;
+    }
+
+    /**
+     * Compile the text lines of an item into one template. Empty lines are filtered out, <code>null</code> lines
+     * become empty lines. Elements compile their text once when it is set.
+     * @param text  The text lines
+     * @return The template of the lines joined by new line characters or <code>null</code> if there is no text
+     */
+    static PlaceholderTemplate compileItemText(String... text) {
+        if (text == null || text.length == 0) {
+            return null;
+        }
+        StringBuilder combined = new StringBuilder();
+        for (String line : text) {
+            if (line == null) {
+                line = " ";
+            } else if (line.isEmpty()) {
+                continue;
             }
+            if (combined.length() > 0) {
+                combined.append('\n');
+            }
+            combined.append(line);
+        }
+        return PlaceholderTemplate.compile(combined.toString());
+    }
+
+    /**
+     * Render the title for a player
+     * @param player    The player viewing the GUI
+     * @return The title with all placeholders replaced or <code>null</code> if there is no title
+     */
+    private String renderTitle(HumanEntity player) {
+        PlaceholderTemplate titleTemplate = this.titleTemplate;
+        return titleTemplate != null ? render(titleTemplate, placeholder -> getPlaceholderValue(player, placeholder)) : null;
+    }
+
+    /**
+     * Replace the placeholders in a template and record how long that took
+     * @param template      The template
+     * @param placeholders  The resolver of the placeholder values
+     * @return The text with all placeholders replaced
+     */
+    private String render(PlaceholderTemplate template, PlaceholderTemplate.Resolver placeholders) {
+        GuiMetrics metrics = getMetrics();
+        if (metrics == null) {
+            return template.render(placeholders);
+        }
+        long start = System.nanoTime();
+        String rendered = template.render(placeholders);
+        metrics.getReplaceVars().record(System.nanoTime() - start);
+        return rendered;
+    }
+
+    /**
+     * Set the display name and the lore of an item from an already replaced text
+     * @param item      The {@link ItemStack} to set the text for
+     * @param combined  The text as returned by {@link #getItemText(HumanEntity, String...)}
+     * @param setName   Whether or not the first line should be set as the display name
+     */
+    void setItemText(ItemStack item, String combined, boolean setName) {
+        setItemText(item, combined, setName, getItemNameSetter(), getItemLoreSetter());
+    }
+
+    /**
+     * Set the display name and the lore of an item from an already replaced text with certain setters.
+     * This doesn't access the GUI so it can be used on other threads.
+     * @param item          The {@link ItemStack} to set the text for
+     * @param combined      The text as returned by {@link #getItemText(HumanEntity, String...)}
+     * @param setName       Whether or not the first line should be set as the display name
+     * @param nameSetter    The setter for the display name, see {@link #getItemNameSetter()}
+     * @param loreSetter    The setter for the lore, see {@link #getItemLoreSetter()}
+     */
+    static void setItemText(ItemStack item, String combined, boolean setName, BiConsumer<ItemMeta, String> nameSetter, BiConsumer<ItemMeta, List<String>> loreSetter) {
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            String[] lines = combined.split("\n");
+            if (setName) {
+                nameSetter.accept(meta, lines[0]);
+            }
+            if (lines.length > 1) {
+                loreSetter.accept(meta, Arrays.asList(Arrays.copyOfRange(lines, 1, lines.length)));
+            } else {
+                meta.setLore(null);
+            }
+            item.setItemMeta(meta);
         }
     }
 
@@ -1779,47 +3166,69 @@ public class InventoryGui implements Listener {
      * @return      The text with all placeholders replaced
      */
     public String replaceVars(HumanEntity player, String text, String... replacements) {
-        Map<String, String> map = new LinkedHashMap<>();
         for (int i = 0; i + 1 < replacements.length; i += 2) {
-            map.putIfAbsent(replacements[i], replacements[i + 1]);
-        }
-
-        map.putIfAbsent("plugin", plugin.getName());
-        try {
-            map.putIfAbsent("owner", owner instanceof Nameable ? ((Nameable) owner).getCustomName() : "");
-        } catch (NoSuchMethodError | NoClassDefFoundError e) {
-            map.putIfAbsent("owner", owner instanceof Entity ? ((Entity) owner).getCustomName() : "");
+            if (replacements[i] != null && !PlaceholderTemplate.isValidName(replacements[i])) {
+                // Templates can't find this placeholder, search for every one of them in the text instead
+                Map<String, String> map = new LinkedHashMap<>();
+                for (int j = 0; j + 1 < replacements.length; j += 2) {
+                    map.putIfAbsent(replacements[j], replacements[j + 1]);
+                }
+                for (String placeholder : PLACEHOLDERS) {
+                    map.putIfAbsent(placeholder, getPlaceholderValue(player, placeholder));
+                }
+                return PlaceholderTemplate.replaceLiteral(text, map);
+            }
         }
-        map.putIfAbsent("title", title);
-        map.putIfAbsent("page", String.valueOf(getPageNumber(player) + 1));
-        map.putIfAbsent("nextpage", getPageNumber(player) + 1 < getPageAmount(player) ? String.valueOf(getPageNumber(player) + 2) : "none");
-        map.putIfAbsent("prevpage", getPageNumber(player) > 0 ? String.valueOf(getPageNumber(player)) : "none");
-        map.putIfAbsent("pages", String.valueOf(getPageAmount(player)));
-
-        return ChatColor.translateAlternateColorCodes('&', replace(text, map));
+        return render(PlaceholderTemplate.compile(text), placeholder -> getPlaceholderValue(player, placeholder, replacements));
     }
 
     /**
-     * Replace placeholders in a string
-     * @param string        The string to replace in
-     * @param replacements  What to replace the placeholders with. The n-th index is the placeholder, the n+1-th the value.
-     * @return The string with all placeholders replaced (using the configured placeholder prefix and suffix)
+     * Get the value of a placeholder regarding the gui's state
+     * @param player        The player viewing the GUI
+     * @param placeholder   The name of the placeholder without the percent signs
+     * @param replacements  Additional repplacements. i = placeholder, i+1 = replacements
+     * @return The value or <code>null</code> if the placeholder is unknown
      */
-    private String replace(String string, Map<String, String> replacements) {
-        for (Map.Entry<String, String> entry : replacements.entrySet()) {
-            if (entry.getKey() == null) {
-                continue;
-            }
-            String placeholder = "%" + entry.getKey() + "%";
-            Pattern pattern = PATTERN_CACHE.get(placeholder);
-            if (pattern == null) {
-                PATTERN_CACHE.put(placeholder, pattern = Pattern.compile(placeholder, Pattern.LITERAL));
+    private String getPlaceholderValue(HumanEntity player, String placeholder, String... replacements) {
+        for (int i = 0; i + 1 < replacements.length; i += 2) {
+            if (placeholder.equals(replacements[i])) {
+                return replacements[i + 1] != null ? replacements[i + 1] : "null";
             }
-            string = pattern.matcher(string).replaceAll(Matcher.quoteReplacement(entry.getValue() != null ? entry.getValue() : "null"));
         }
-        return string;
+
+        String value;
+        switch (placeholder) {
+            case "plugin":
+                value = plugin.getName();
+                break;
+            case "owner":
+                try {
+                    value = owner instanceof Nameable ? ((Nameable) owner).getCustomName() : "";
+                } catch (NoSuchMethodError | NoClassDefFoundError e) {
+                    value = owner instanceof Entity ? ((Entity) owner).getCustomName() : "";
+                }
+                break;
+            case "title":
+                value = title;
+                break;
+            case "page":
+                value = String.valueOf(getPageNumber(player) + 1);
+                break;
+            case "nextpage":
+                value = getPageNumber(player) + 1 < getPageAmount(player) ? String.valueOf(getPageNumber(player) + 2) : "none";
+                break;
+            case "prevpage":
+                value = getPageNumber(player) > 0 ? String.valueOf(getPageNumber(player)) : "none";
+                break;
+            case "pages":
+                value = String.valueOf(getPageAmount(player));
+                break;
+            default:
+                return null;
+        }
+        return value != null ? value : "null";
     }
-    
+
     /**
      * Simulate the collecting to the cursor while respecting elements that can't be modified
      * @param click The click that startet it all
@@ -1971,76 +3380,106 @@ public class InventoryGui implements Listener {
         // Methods factory.
         private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
 
-        private static final JavaPlugin PLUGIN = JavaPlugin.getProvidingPlugin(InventoryUpdater.class);
         private static final Set<String> UNOPENABLES = Sets.newHashSet("CRAFTING", "CREATIVE", "PLAYER");
         private static final boolean SUPPORTS_19 = ReflectionUtils.supports(19);
+        private static final boolean SUPPORTS_20 = ReflectionUtils.supports(20);
+        private static final boolean USE_CONTAINERS = ReflectionUtils.MINOR_NUMBER > 13;
         private static final Object[] DUMMY_COLOR_MODIFIERS = new Object[0];
+        // The container objects of the server, resolved once so that updates don't need to use reflection.
+        private static final Map<Containers, Object> CONTAINER_OBJECTS = new EnumMap<>(Containers.class);
 
         static {
-            // Initialize classes.
-            CRAFT_PLAYER = ReflectionUtils.getCraftClass("entity.CraftPlayer");
-            CHAT_MESSAGE = SUPPORTS_19 ? null : ReflectionUtils.getNMSClass("network.chat", "ChatMessage");
-            PACKET_PLAY_OUT_OPEN_WINDOW = ReflectionUtils.getNMSClass("network.protocol.game", "PacketPlayOutOpenWindow");
-            I_CHAT_BASE_COMPONENT = ReflectionUtils.getNMSClass("network.chat", "IChatBaseComponent");
-            // Check if we use containers, otherwise, can throw errors on older versions.
-            CONTAINERS = useContainers() ? ReflectionUtils.getNMSClass("world.inventory", "Containers") : null;
-            ENTITY_PLAYER = ReflectionUtils.getNMSClass("server.level", "EntityPlayer");
-            CONTAINER = ReflectionUtils.getNMSClass("world.inventory", "Container");
-            I_CHAT_MUTABLE_COMPONENT = SUPPORTS_19 ? ReflectionUtils.getNMSClass("network.chat", "IChatMutableComponent") : null;
-
-            // Initialize methods.
-            getHandle = getMethod(CRAFT_PLAYER, "getHandle", MethodType.methodType(ENTITY_PLAYER));
-            getBukkitView = getMethod(CONTAINER, "getBukkitView", MethodType.methodType(InventoryView.class));
-            literal = SUPPORTS_19 ? getMethod(I_CHAT_BASE_COMPONENT, "b", MethodType.methodType(I_CHAT_MUTABLE_COMPONENT, String.class), true) : null;
-
-            // Initialize constructors.
-            chatMessage = SUPPORTS_19 ? null : getConstructor(CHAT_MESSAGE, String.class, Object[].class);
-            packetPlayOutOpenWindow =
-                    (useContainers()) ?
-                            getConstructor(PACKET_PLAY_OUT_OPEN_WINDOW, int.class, CONTAINERS, I_CHAT_BASE_COMPONENT) :
-                            // Older versions use String instead of Containers, and require an int for the inventory size.
-                            getConstructor(PACKET_PLAY_OUT_OPEN_WINDOW, int.class, String.class, I_CHAT_BASE_COMPONENT, int.class);
-
-            // Initialize fields.
-            activeContainer = getField(ENTITY_PLAYER, CONTAINER, "activeContainer", "bV", "bW", "bU", "bP", "containerMenu");
-            windowId = getField(CONTAINER, int.class, "windowId", "j", "containerId");
+            if (SUPPORTS_20) {
+                // The title can be changed through the API, none of the internals are needed.
+                CRAFT_PLAYER = null;
+                CHAT_MESSAGE = null;
+                PACKET_PLAY_OUT_OPEN_WINDOW = null;
+                I_CHAT_BASE_COMPONENT = null;
+                CONTAINERS = null;
+                ENTITY_PLAYER = null;
+                CONTAINER = null;
+                I_CHAT_MUTABLE_COMPONENT = null;
+                getHandle = null;
+                getBukkitView = null;
+                literal = null;
+                chatMessage = null;
+                packetPlayOutOpenWindow = null;
+                activeContainer = null;
+                windowId = null;
+            } else {
+                // Initialize classes.
+                CRAFT_PLAYER = ReflectionUtils.getCraftClass("entity.CraftPlayer");
+                CHAT_MESSAGE = SUPPORTS_19 ? null : ReflectionUtils.getNMSClass("network.chat", "ChatMessage");
+                PACKET_PLAY_OUT_OPEN_WINDOW = ReflectionUtils.getNMSClass("network.protocol.game", "PacketPlayOutOpenWindow");
+                I_CHAT_BASE_COMPONENT = ReflectionUtils.getNMSClass("network.chat", "IChatBaseComponent");
+                // Check if we use containers, otherwise, can throw errors on older versions.
+                CONTAINERS = USE_CONTAINERS ? ReflectionUtils.getNMSClass("world.inventory", "Containers") : null;
+                ENTITY_PLAYER = ReflectionUtils.getNMSClass("server.level", "EntityPlayer");
+                CONTAINER = ReflectionUtils.getNMSClass("world.inventory", "Container");
+                I_CHAT_MUTABLE_COMPONENT = SUPPORTS_19 ? ReflectionUtils.getNMSClass("network.chat", "IChatMutableComponent") : null;
+
+                // Initialize methods.
+                getHandle = getMethod(CRAFT_PLAYER, "getHandle", MethodType.methodType(ENTITY_PLAYER));
+                getBukkitView = getMethod(CONTAINER, "getBukkitView", MethodType.methodType(InventoryView.class));
+                literal = SUPPORTS_19 ? getMethod(I_CHAT_BASE_COMPONENT, "b", MethodType.methodType(I_CHAT_MUTABLE_COMPONENT, String.class), true) : null;
+
+                // Initialize constructors.
+                chatMessage = SUPPORTS_19 ? null : getConstructor(CHAT_MESSAGE, String.class, Object[].class);
+                packetPlayOutOpenWindow =
+                        (USE_CONTAINERS) ?
+                                getConstructor(PACKET_PLAY_OUT_OPEN_WINDOW, int.class, CONTAINERS, I_CHAT_BASE_COMPONENT) :
+                                // Older versions use String instead of Containers, and require an int for the inventory size.
+                                getConstructor(PACKET_PLAY_OUT_OPEN_WINDOW, int.class, String.class, I_CHAT_BASE_COMPONENT, int.class);
+
+                // Initialize fields.
+                activeContainer = getField(ENTITY_PLAYER, CONTAINER, "activeContainer", "bV", "bW", "bU", "bP", "containerMenu");
+                windowId = getField(CONTAINER, int.class, "windowId", "j", "containerId");
+
+                // Initialize container objects.
+                for (Containers container : Containers.values()) {
+                    if (USE_CONTAINERS && container.getContainerVersion() > ReflectionUtils.MINOR_NUMBER) {
+                        // The container was added in a newer version than the current one
+                        continue;
+                    }
+                    Object object = container.resolveObject();
+                    if (object != null) {
+                        CONTAINER_OBJECTS.put(container, object);
+                    }
+                }
+            }
         }
 
         /**
          * Update the player inventory, so you can change the title.
+         * This only sends the title packet and resyncs the contents, the inventory itself is not recreated.
          *
          * @param player   whose inventory will be updated.
          * @param newTitle the new title for the inventory.
+         * @return whether the title was updated.
          */
         @SuppressWarnings("UnstableApiUsage")
-        public static void updateInventory(Player player, String newTitle) {
+        public static boolean updateInventory(Player player, String newTitle) {
             Preconditions.checkArgument(player != null, "Cannot update inventory to null player.");
             Preconditions.checkArgument(newTitle != null, "The new title can't be null.");
 
             try {
-                if (newTitle.length() > 32) {
-                    newTitle = newTitle.substring(0, 32);
-                }
-
-                if (ReflectionUtils.supports(20)) {
+                if (SUPPORTS_20) {
                     InventoryView open = player.getOpenInventory();
-                    if (UNOPENABLES.contains(open.getType().name())) return;
+                    if (UNOPENABLES.contains(open.getType().name())) return false;
+                    // The server sends the title and resyncs the contents itself.
                     open.setTitle(newTitle);
-                    return;
+                    return true;
+                }
+
+                // Older clients only accept titles of up to 32 characters in the packet.
+                if (newTitle.length() > 32) {
+                    newTitle = newTitle.substring(0, 32);
                 }
 
                 // Get EntityPlayer from CraftPlayer.
                 Object craftPlayer = CRAFT_PLAYER.cast(player);
                 Object entityPlayer = getHandle.invoke(craftPlayer);
 
-                // Create new title.
-                Object title;
-                if (ReflectionUtils.supports(19)) {
-                    title = literal.invoke(newTitle);
-                } else {
-                    title = chatMessage.invoke(newTitle, DUMMY_COLOR_MODIFIERS);
-                }
-
                 // Get activeContainer from EntityPlayer.
                 Object activeContainer = InventoryUpdater.activeContainer.invoke(entityPlayer);
 
@@ -2049,50 +3488,59 @@ public class InventoryGui implements Listener {
 
                 // Get InventoryView from activeContainer.
                 Object bukkitView = getBukkitView.invoke(activeContainer);
-                if (!(bukkitView instanceof InventoryView)) return;
+                if (!(bukkitView instanceof InventoryView)) return false;
 
                 // Avoiding pattern variable, since some people may be using an older version of java.
                 InventoryView view = (InventoryView) bukkitView;
                 InventoryType type = view.getTopInventory().getType();
 
                 // Workbenchs and anvils can change their title since 1.14.
-                if ((type == InventoryType.WORKBENCH || type == InventoryType.ANVIL) && !useContainers()) return;
+                if ((type == InventoryType.WORKBENCH || type == InventoryType.ANVIL) && !USE_CONTAINERS) return false;
 
                 // You can't reopen crafting, creative and player inventory.
-                if (UNOPENABLES.contains(type.name())) return;
+                if (UNOPENABLES.contains(type.name())) return false;
 
                 int size = view.getTopInventory().getSize();
 
                 // Get container, check is not null.
                 Containers container = Containers.getType(type, size);
-                if (container == null) return;
-
-                // If the container was added in a newer version than the current, return.
-                if (container.getContainerVersion() > ReflectionUtils.MINOR_NUMBER && useContainers()) {
-                    PLUGIN.getLogger().warning("This container doesn't work on your current version.");
-                    return;
-                }
+                if (container == null) return false;
 
                 Object object;
                 // Dispensers and droppers use the same container, but in previous versions, use a diferrent minecraft name.
-                if (!useContainers() && container == Containers.GENERIC_3X3) {
-                    object = "minecraft:" + type.name().toLowerCase();
+                if (!USE_CONTAINERS && container == Containers.GENERIC_3X3) {
+                    object = "minecraft:" + type.name().toLowerCase(Locale.ROOT);
+                } else {
+                    object = CONTAINER_OBJECTS.get(container);
+                }
+                if (object == null) {
+                    // Only looked up here as the 1.20+ path must not depend on the class loader of the plugin.
+                    JavaPlugin.getProvidingPlugin(InventoryUpdater.class).getLogger().warning("This container doesn't work on your current version.");
+                    return false;
+                }
+
+                // Create new title.
+                Object title;
+                if (SUPPORTS_19) {
+                    title = literal.invoke(newTitle);
                 } else {
-                    object = container.getObject();
+                    title = chatMessage.invoke(newTitle, DUMMY_COLOR_MODIFIERS);
                 }
 
                 // Create packet.
-                Object packet = useContainers() ?
+                Object packet = USE_CONTAINERS ?
                         packetPlayOutOpenWindow.invoke(windowId, object, title) :
                         packetPlayOutOpenWindow.invoke(windowId, object, title, size);
 
                 // Send packet sync.
                 ReflectionUtils.sendPacketSync(player, packet);
 
-                // Update inventory.
+                // Resync the contents as the client cleared them when opening the window again.
                 player.updateInventory();
+                return true;
             } catch (Throwable throwable) {
                 throwable.printStackTrace();
+                return false;
             }
         }
 
@@ -2165,7 +3613,7 @@ public class InventoryGui implements Listener {
          * @return whether to use containers.
          */
         private static boolean useContainers() {
-            return ReflectionUtils.MINOR_NUMBER > 13;
+            return USE_CONTAINERS;
         }
 
         /**
@@ -2196,7 +3644,7 @@ public class InventoryGui implements Listener {
             LECTERN(14, null, "LECTERN"),
             LOOM(14, null, "LOOM"),
             SMOKER(14, null, "SMOKER"),
-            // CARTOGRAPHY in 1.14, CARTOGRAPHY_TABLE in 1.15 & 1.16 (container), handle in getObject().
+            // CARTOGRAPHY in 1.14, CARTOGRAPHY_TABLE in 1.15 & 1.16 (container), handled in resolveObject().
             CARTOGRAPHY_TABLE(14, null, "CARTOGRAPHY"),
             STONECUTTER(14, null, "STONECUTTER"),
 
@@ -2208,6 +3656,15 @@ public class InventoryGui implements Listener {
             private final String[] inventoryTypesNames;
 
             private static final char[] alphabet = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+            private static final Map<String, Containers> BY_TYPE_NAME = new HashMap<>();
+
+            static {
+                for (Containers container : values()) {
+                    for (String bukkitName : container.getInventoryTypesNames()) {
+                        BY_TYPE_NAME.putIfAbsent(bukkitName, container);
+                    }
+                }
+            }
 
             Containers(int containerVersion, String minecraftName, String... inventoryTypesNames) {
                 this.containerVersion = containerVersion;
@@ -2225,22 +3682,15 @@ public class InventoryGui implements Listener {
                 if (type == InventoryType.CHEST) {
                     return Containers.valueOf("GENERIC_9X" + size / 9);
                 }
-                for (Containers container : Containers.values()) {
-                    for (String bukkitName : container.getInventoryTypesNames()) {
-                        if (bukkitName.equalsIgnoreCase(type.toString())) {
-                            return container;
-                        }
-                    }
-                }
-                return null;
+                return BY_TYPE_NAME.get(type.name());
             }
 
             /**
-             * Get the object from the container enum.
+             * Resolve the object of the container enum. This is only done once when the updater is loaded.
              *
              * @return a Containers object if 1.14+, otherwise, a String.
              */
-            public @Nullable Object getObject() {
+            private @Nullable Object resolveObject() {
                 try {
                     if (!useContainers()) return getMinecraftName();
                     int version = ReflectionUtils.MINOR_NUMBER;
@@ -0,0 +1,246 @@
+package space.ngrix.gui;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A text that was compiled once into literal and placeholder segments so that all placeholders
+ * can be replaced in a single pass. Color codes in the literal segments are translated when compiling,
+ * only the values of the placeholders are translated when rendering. A color code whose character is
+ * the value of a placeholder, like <code>&amp;%color%</code>, is translated too.<br>
+ * Compile a text once and keep the template, e.g. when the text is set, instead of compiling it for every render.<br>
+ * Placeholders have the format <code>%name%</code> where the name consists of letters, digits,
+ * <code>_</code>, <code>-</code>, <code>.</code> or <code>:</code>, see {@link #isValidName(String)}.
+ * Texts with other placeholder names can be replaced with {@link #replaceLiteral(String, Map)}.
+ */
+public final class PlaceholderTemplate {
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final Map<String, Pattern> PATTERN_CACHE = new ConcurrentHashMap<>();
+
+    // Translated literal text or the name of a placeholder
+    private final String[] segments;
+    // Index of the placeholder in names or -1 if the segment is literal
+    private final int[] placeholders;
+    // Whether the literal before a placeholder ended with a & that was removed to translate it with the value
+    private final boolean[] colorPrefixed;
+    private final List<String> names;
+    private final int literalLength;
+    private final String constant;
+
+    private PlaceholderTemplate(String text) {
+        List<String> segments = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int literalStart = 0;
+        int index = 0;
+        int start;
+        while ((start = text.indexOf('%', index)) > -1) {
+            int end = findPlaceholderEnd(text, start + 1);
+            if (end < 0) {
+                index = start + 1;
+                continue;
+            }
+            if (start > literalStart) {
+                segments.add(text.substring(literalStart, start));
+                names.add(null);
+            }
+            segments.add(text.substring(start + 1, end));
+            names.add(text.substring(start + 1, end));
+            literalStart = index = end + 1;
+        }
+        if (literalStart < text.length() || segments.isEmpty()) {
+            segments.add(text.substring(literalStart));
+            names.add(null);
+        }
+
+        this.segments = segments.toArray(new String[0]);
+        this.placeholders = new int[this.segments.length];
+        this.colorPrefixed = new boolean[this.segments.length];
+        List<String> distinct = new ArrayList<>();
+        int literalLength = 0;
+        for (int i = 0; i < this.segments.length; i++) {
+            String name = names.get(i);
+            if (name != null) {
+                int nameIndex = distinct.indexOf(name);
+                if (nameIndex < 0) {
+                    nameIndex = distinct.size();
+                    distinct.add(name);
+                }
+                this.placeholders[i] = nameIndex;
+                continue;
+            }
+            this.placeholders[i] = -1;
+            String literal = this.segments[i];
+            if (i + 1 < this.segments.length && literal.endsWith("&")) {
+                // The code character comes from the next placeholder, translate the & together with its value
+                literal = literal.substring(0, literal.length() - 1);
+                colorPrefixed[i + 1] = true;
+            }
+            this.segments[i] = translateColors(literal);
+            literalLength += this.segments[i].length();
+        }
+        this.names = Collections.unmodifiableList(distinct);
+        this.literalLength = literalLength;
+        this.constant = distinct.isEmpty() ? this.segments[0] : null;
+    }
+
+    /**
+     * Compile a text into a template. Keep the template to render the text as often as needed.
+     * @param text  The text to compile
+     * @return The compiled template
+     */
+    public static PlaceholderTemplate compile(String text) {
+        return new PlaceholderTemplate(text);
+    }
+
+    private static int findPlaceholderEnd(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%') {
+                return i > from ? i : -1;
+            }
+            if (!isNameChar(c)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.' || c == ':';
+    }
+
+    /**
+     * Check whether or not a placeholder name can be found by a template
+     * @param name  The name of the placeholder without the percent signs
+     * @return <code>true</code> if templates replace the placeholder; <code>false</code> if it needs {@link #replaceLiteral(String, Map)}
+     */
+    public static boolean isValidName(String name) {
+        if (name == null || name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!isNameChar(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replace placeholders with any name by searching the text for each of them one after another.
+     * This is slower than a template but also supports names that templates can't find.
+     * @param text          The text to replace the placeholders in
+     * @param replacements  The values of the placeholders by their name without the percent signs.
+     *                      They are replaced in the iteration order of the map, <code>null</code> values are replaced with "null".
+     * @return The text with all placeholders replaced and color codes translated
+     */
+    public static String replaceLiteral(String text, Map<String, String> replacements) {
+        for (Map.Entry<String, String> entry : replacements.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            String placeholder = "%" + entry.getKey() + "%";
+            Pattern pattern = PATTERN_CACHE.get(placeholder);
+            if (pattern == null) {
+                if (PATTERN_CACHE.size() >= MAX_CACHE_SIZE) {
+                    PATTERN_CACHE.clear();
+                }
+                PATTERN_CACHE.put(placeholder, pattern = Pattern.compile(placeholder, Pattern.LITERAL));
+            }
+            text = pattern.matcher(text).replaceAll(Matcher.quoteReplacement(entry.getValue() != null ? entry.getValue() : "null"));
+        }
+        return translateColors(text);
+    }
+
+    private static String translateColors(String text) {
+        return text.indexOf('&') > -1 ? ChatColor.translateAlternateColorCodes('&', text) : text;
+    }
+
+    /**
+     * Replace all placeholders in this template
+     * @param resolver  The resolver for the placeholder values
+     * @return The text with all placeholders replaced and color codes translated
+     */
+    public String render(Resolver resolver) {
+        if (constant != null) {
+            return constant;
+        }
+        String[] values = new String[names.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = resolver.resolve(names.get(i));
+        }
+        return render(values);
+    }
+
+    /**
+     * Replace all placeholders in this template with values that were resolved before
+     * @param values    The values of the placeholders in the order of {@link #getPlaceholders()}.
+     *                  <code>null</code> values are unknown placeholders which are kept as they were.
+     *                  The array can be <code>null</code> if the template is constant.
+     * @return The text with all placeholders replaced and color codes translated
+     */
+    public String render(String[] values) {
+        if (constant != null) {
+            return constant;
+        }
+        StringBuilder builder = new StringBuilder(literalLength + values.length * 16);
+        for (int i = 0; i < segments.length; i++) {
+            if (placeholders[i] < 0) {
+                builder.append(segments[i]);
+                continue;
+            }
+            String value = values[placeholders[i]];
+            if (value == null) {
+                // Unknown placeholder, keep it as it was
+                if (colorPrefixed[i]) {
+                    builder.append('&');
+                }
+                builder.append('%').append(segments[i]).append('%');
+            } else {
+                builder.append(translateColors(colorPrefixed[i] ? "&" + value : value));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Check whether or not this template contains a certain placeholder
+     * @param placeholder   The name of the placeholder without the percent signs
+     * @return Whether or not the placeholder is used in this template
+     */
+    public boolean contains(String placeholder) {
+        return names.contains(placeholder);
+    }
+
+    /**
+     * Get the names of the placeholders that this template contains
+     * @return The names without the percent signs, every name is only contained once
+     */
+    public List<String> getPlaceholders() {
+        return names;
+    }
+
+    /**
+     * Get whether or not this template contains any placeholders
+     * @return <code>true</code> if the text is constant; <code>false</code> if it has placeholders
+     */
+    public boolean isConstant() {
+        return constant != null;
+    }
+
+    public interface Resolver {
+        /**
+         * Get the value of a placeholder
+         * @param placeholder   The name of the placeholder without the percent signs
+         * @return The value or <code>null</code> if the placeholder is unknown
+         */
+        String resolve(String placeholder);
+    }
+}
@@ -0,0 +1,67 @@
+package space.ngrix.gui;
+
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.plugin.java.JavaPlugin;
+import space.ngrix.config.backend.internal.DataStorage;
+import space.ngrix.config.backend.internal.FlatFile;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Holds a {@link GuiTemplate} that is compiled again whenever its file is reloaded.
+ * If the changed definition is invalid then the previous template is kept.
+ */
+public class ReloadableGuiTemplate implements Consumer<FlatFile> {
+    private final FlatFile file;
+    private final String path;
+    private volatile GuiTemplate template;
+
+    /**
+     * Compile a template from a file and recompile it when the file is reloaded.
+     * This replaces the reload consumer of the file!
+     * @param file  The file that contains the definition
+     * @param path  The path of the section with the definition, null or empty if it's the whole file
+     * @throws IllegalArgumentException Thrown if the definition is invalid
+     */
+    public ReloadableGuiTemplate(FlatFile file, String path) throws IllegalArgumentException {
+        this.file = file;
+        this.path = path;
+        this.template = GuiTemplate.compile(getConfig(file));
+        file.setReloadConsumer(this);
+    }
+
+    private DataStorage getConfig(FlatFile file) {
+        return path == null || path.isEmpty() ? file : file.getSection(path);
+    }
+
+    @Override
+    public void accept(FlatFile file) {
+        try {
+            template = GuiTemplate.compile(getConfig(file));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid GUI definition in '" + file.getName() + "'" + (path != null && !path.isEmpty() ? " at " + path : "") + ", keeping the previous one");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Get the current template. Accessing the file lets it check for changes according to its reload settings.
+     * @return The currently compiled template
+     */
+    public GuiTemplate get() {
+        file.contains(path == null || path.isEmpty() ? "rows" : path + ".rows");
+        return template;
+    }
+
+    /**
+     * Create a new GUI from the current template, see {@link GuiTemplate#create(JavaPlugin, InventoryHolder, Map)}
+     * @param plugin    The plugin that owns the GUI
+     * @param owner     The owner of the GUI, can be null
+     * @param actions   The actions that the action keys of the elements are bound to
+     * @return The created GUI
+     */
+    public InventoryGui create(JavaPlugin plugin, InventoryHolder owner, Map<String, GuiElement.Action> actions) {
+        return get().create(plugin, owner, actions);
+    }
+}
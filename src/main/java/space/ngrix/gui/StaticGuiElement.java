@@ -24,15 +24,35 @@ package space.ngrix.gui;
 
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * Represents a simple element in a gui to which an action can be assigned.
  * If you want the item to change on click you have to do that yourself.
  */
 public class StaticGuiElement extends GuiElement {
+    private static final int RENDER_CACHE_SIZE = 16;
+
     private ItemStack item;
     private int number;
     private String[] text;
+    // The text compiled once when it is set, null if there is no text
+    private PlaceholderTemplate textTemplate;
+    // Bumped when the item or the text changes so that items rendered from an older state don't get cached
+    private int version = 0;
+    private final Map<RenderKey, ItemStack> renderCache = new LinkedHashMap<RenderKey, ItemStack>(RENDER_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<RenderKey, ItemStack> eldest) {
+            return size() > RENDER_CACHE_SIZE;
+        }
+    };
     
     /**
      * Represents an element in a gui
@@ -41,7 +61,7 @@ public class StaticGuiElement extends GuiElement {
      * @param number    The number, 1 will not display the number
      * @param action    The action to run when the player clicks on this element
      * @param text      The text to display on this element, placeholders are automatically
-     *                  replaced, see {@link InventoryGui#replace} for a list of the
+     *                  replaced, see {@link InventoryGui#replaceVars} for a list of the
      *                  placeholder variables. Empty text strings are also filter out, use
      *                  a single space if you want to add an empty line!<br>
      *                  If it's not set/empty the item's default name will be used
@@ -51,6 +71,7 @@ public class StaticGuiElement extends GuiElement {
         super(slotChar, action);
         this.item = item;
         this.text = text;
+        this.textTemplate = InventoryGui.compileItemText(text);
         setNumber(number);
     }
     
@@ -89,29 +110,160 @@ public class StaticGuiElement extends GuiElement {
      * @param item  The item that should be displayed by this element
      */
     public void setItem(ItemStack item) {
-        this.item = item;
+        synchronized (renderCache) {
+            this.item = item;
+            clearRenderCache();
+        }
     }
 
     /**
      * Get the raw item displayed by this element which was passed to the constructor or set with {@link #setItem(ItemStack)}.
      * This item will not have the amount or text applied! Use {@link #getItem(HumanEntity, int)} for that!
+     * Call {@link #invalidateRenderCache()} after modifying it directly.
      * @return  The raw item
      */
     public ItemStack getRawItem() {
         return item;
     }
 
+    /**
+     * Get the item that is displayed by this element
+     * @param who   The player who views the page
+     * @param slot  The slot to get the item for
+     * @return      The ItemStack that is displayed as this element
+     */
     @Override
     public ItemStack getItem(HumanEntity who, int slot) {
+        return renderItem(who, number);
+    }
+
+    /**
+     * Plain static elements return their cached item as draws copy it into the inventory anyway
+     */
+    @Override
+    ItemStack getDrawItem(HumanEntity who, int slot) {
+        if (getClass() != StaticGuiElement.class) {
+            // Subclasses might display something else than the rendered item
+            return super.getDrawItem(who, slot);
+        }
+        return renderSharedItem(who, number);
+    }
+
+    /**
+     * Render the item with the text of this element and a certain number. Items are cached by the values of the
+     * placeholders that the text contains and the number so they are only built again if something relevant changed.
+     * @param who       The player who views the page
+     * @param number    The number to display, see {@link #setNumber(int)}
+     * @return A copy of the rendered item
+     */
+    protected ItemStack renderItem(HumanEntity who, int number) {
+        ItemStack rendered = renderSharedItem(who, number);
+        return rendered != null ? rendered.clone() : null;
+    }
+
+    /**
+     * Render the item like {@link #renderItem(HumanEntity, int)} but without copying it
+     * @param who       The player who views the page
+     * @param number    The number to display, see {@link #setNumber(int)}
+     * @return The cached rendered item which is shared and must not be modified
+     */
+    ItemStack renderSharedItem(HumanEntity who, int number) {
+        return snapshotItem(who, number, true).get();
+    }
+
+    /**
+     * Prepare rendering the item for a player. The raw item, the compiled text, the placeholder values and
+     * the GUI's text setters are copied now, the returned supplier only renders from these copies and can be
+     * called from other threads, see {@link InventoryGui#showAsync(HumanEntity)}.
+     * @param who       The player who views the page
+     * @param number    The number to display, see {@link #setNumber(int)}
+     * @return The supplier of the rendered item which is shared and must not be modified
+     */
+    Supplier<ItemStack> snapshotItem(HumanEntity who, int number) {
+        return snapshotItem(who, number, false);
+    }
+
+    private Supplier<ItemStack> snapshotItem(HumanEntity who, int number, boolean recordMetrics) {
+        int amount = number < 1 || number > 64 ? 1 : number;
+        InventoryGui gui = this.gui;
+        ItemStack item;
+        PlaceholderTemplate template;
+        boolean setName;
+        int version;
+        synchronized (renderCache) {
+            item = this.item;
+            template = gui != null ? textTemplate : null;
+            setName = text != null && text.length > 0 && text[0] != null;
+            version = this.version;
+        }
         if (item == null) {
-            return null;
+            return () -> null;
+        }
+        String[] values = null;
+        if (template != null && !template.isConstant()) {
+            PlaceholderTemplate.Resolver placeholders = gui.getPlaceholders(who);
+            List<String> names = template.getPlaceholders();
+            values = new String[names.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = placeholders.resolve(names.get(i));
+            }
+        }
+        RenderKey key = new RenderKey(amount, values);
+        synchronized (renderCache) {
+            ItemStack cached = renderCache.get(key);
+            if (cached != null && version == this.version) {
+                return () -> cached;
+            }
         }
-        ItemStack clone = item.clone();
-        gui.setItemText(who, clone, getText());
-        if (number > 0 && number <= 64) {
-            clone.setAmount(number);
+        ItemStack rendered = item.clone();
+        if (template == null) {
+            rendered.setAmount(amount);
+            return () -> cache(version, key, rendered);
         }
-        return clone;
+        String[] renderValues = values;
+        BiConsumer<ItemMeta, String> nameSetter = gui.getItemNameSetter();
+        BiConsumer<ItemMeta, List<String>> loreSetter = gui.getItemLoreSetter();
+        return () -> {
+            // The GUI's metrics are only recorded when rendering right away on the GUI's thread
+            String itemText = recordMetrics ? gui.renderItemText(template, renderValues) : template.render(renderValues);
+            InventoryGui.setItemText(rendered, itemText, setName, nameSetter, loreSetter);
+            rendered.setAmount(amount);
+            return cache(version, key, rendered);
+        };
+    }
+
+    private ItemStack cache(int version, RenderKey key, ItemStack rendered) {
+        synchronized (renderCache) {
+            if (version == this.version) {
+                renderCache.put(key, rendered);
+            }
+        }
+        return rendered;
+    }
+
+    /**
+     * Drop all cached rendered items of this element and compile the text again. Changes to the raw item with
+     * {@link #setItem(ItemStack)} or to the text with {@link #setText(String...)} are detected automatically,
+     * this only needs to be called if the raw item or the text was changed in place.
+     */
+    public void invalidateRenderCache() {
+        synchronized (renderCache) {
+            textTemplate = InventoryGui.compileItemText(text);
+            clearRenderCache();
+        }
+    }
+
+    private void clearRenderCache() {
+        synchronized (renderCache) {
+            version++;
+            renderCache.clear();
+        }
+    }
+
+    @Override
+    public void setGui(InventoryGui gui) {
+        super.setGui(gui);
+        clearRenderCache();
     }
 
     /**
@@ -123,7 +275,13 @@ public class StaticGuiElement extends GuiElement {
      *              If it's not set/empty the item's default name will be used
      */
     public void setText(String... text) {
-        this.text = text;
+        synchronized (renderCache) {
+            this.text = text;
+            invalidateRenderCache();
+        }
+        if (gui != null) {
+            gui.invalidatePersonalized();
+        }
     }
 
     /**
@@ -134,18 +292,24 @@ public class StaticGuiElement extends GuiElement {
         return text;
     }
 
+    /**
+     * Get the compiled text of this element
+     * @return The template of the text lines or <code>null</code> if there is no text
+     */
+    PlaceholderTemplate getTextTemplate() {
+        return textTemplate;
+    }
+
     /**
      * Set the number that this element should display (via the Item's amount)
      * @param number    The number, 1 will not display the number
      * @return          <code>true</code> if the number was set; <code>false</code> if it was below 1 or above 64
      */
     public boolean setNumber(int number) {
-        if (number < 1 || number > 64) {
-            this.number = 1;
-            return false;
-        }
-        this.number = number;
-        return true;
+        boolean valid = number >= 1 && number <= 64;
+        // The render cache is keyed by the number so it doesn't need to be invalidated here
+        this.number = valid ? number : 1;
+        return valid;
     }
 
     /**
@@ -156,4 +320,35 @@ public class StaticGuiElement extends GuiElement {
         return number;
     }
 
+    /**
+     * The number and the placeholder values that an item was rendered with
+     */
+    private static final class RenderKey {
+        private final int number;
+        private final String[] values;
+        private final int hash;
+
+        private RenderKey(int number, String[] values) {
+            this.number = number;
+            this.values = values;
+            this.hash = 31 * number + Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RenderKey)) {
+                return false;
+            }
+            RenderKey other = (RenderKey) o;
+            return number == other.number && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
@@ -0,0 +1,276 @@
+package space.ngrix.utils;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Hands work back to the main thread, or on Folia to the global region or the region of an entity.
+ * Tasks are queued and only one drain task is submitted to the server's scheduler per queue and tick,
+ * so submitting thousands of tasks during a tick doesn't create thousands of scheduler tasks.<br>
+ * On Bukkit/Paper all tasks share the queue of the main thread, on Folia every entity has its own queue.
+ */
+public class TaskScheduler {
+
+    private static final boolean FOLIA;
+    private static final Map<JavaPlugin, TaskScheduler> SCHEDULERS = new ConcurrentHashMap<>();
+
+    private final JavaPlugin plugin;
+    private final TaskQueue globalQueue = new TaskQueue();
+    private final Map<UUID, TaskQueue> entityQueues = new ConcurrentHashMap<>();
+    private final AtomicLong submittedTasks = new AtomicLong();
+    private final AtomicLong scheduledDrains = new AtomicLong();
+
+    static {
+        boolean folia;
+        try {
+            Class.forName("io.papermc.paper.threadedregions.scheduler.AsyncScheduler");
+            folia = true;
+        } catch (ClassNotFoundException e) {
+            folia = false;
+        }
+        FOLIA = folia;
+    }
+
+    private TaskScheduler(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Get the scheduler of a plugin. The scheduler is dropped when the plugin gets disabled.
+     * @param plugin The plugin to run the tasks for
+     * @return The scheduler of that plugin
+     */
+    public static TaskScheduler get(JavaPlugin plugin) {
+        TaskScheduler scheduler = SCHEDULERS.get(plugin);
+        if (scheduler != null) {
+            return scheduler;
+        }
+        return SCHEDULERS.computeIfAbsent(plugin, p -> {
+            if (p.isEnabled()) {
+                p.getServer().getPluginManager().registerEvents(new DisableListener(p), p);
+            }
+            return new TaskScheduler(p);
+        });
+    }
+
+    /**
+     * Check whether or not the server is running Folia
+     * @return Whether or not Folia's region schedulers are used
+     */
+    public static boolean isFolia() {
+        return FOLIA;
+    }
+
+    /**
+     * Schedule a task on the global region/main thread to run on the next tick
+     * @param task the task to be run
+     */
+    public void run(Runnable task) {
+        submittedTasks.incrementAndGet();
+        globalQueue.tasks.add(task);
+        scheduleDrain(globalQueue, () -> {
+            if (FOLIA) {
+                return plugin.getServer().getGlobalRegionScheduler().run(plugin, st -> drain(globalQueue))::isCancelled;
+            }
+            return plugin.getServer().getScheduler().runTask(plugin, () -> drain(globalQueue))::isCancelled;
+        });
+    }
+
+    /**
+     * Schedule a task on the thread of an {@link Entity}/main thread to run on the next tick.
+     * On Folia tasks for entities that are removed before the next tick are dropped.
+     * @param entity the entity to schedule a task on
+     * @param task the task to be run
+     */
+    public void run(Entity entity, Runnable task) {
+        if (!FOLIA) {
+            run(task);
+            return;
+        }
+        submittedTasks.incrementAndGet();
+        TaskQueue queue = entityQueues.computeIfAbsent(entity.getUniqueId(), id -> new TaskQueue());
+        queue.tasks.add(task);
+        UUID id = entity.getUniqueId();
+        scheduleDrain(queue, () -> {
+            Runnable retired = () -> {
+                queue.tasks.clear();
+                entityQueues.remove(id, queue);
+            };
+            ScheduledTask drain = entity.getScheduler().run(plugin, st -> drainEntity(id, queue), retired);
+            if (drain == null) {
+                // The entity was already removed
+                retired.run();
+                queue.scheduled.set(false);
+                return null;
+            }
+            return drain::isCancelled;
+        });
+    }
+
+    /**
+     * Submit a drain task for a queue unless one is already pending.
+     * A pending drain that was cancelled, e.g. together with all other tasks of the plugin, is replaced.
+     * @param queue     The queue to drain
+     * @param submit    Submits the drain task and returns whether or not it was cancelled
+     */
+    private void scheduleDrain(TaskQueue queue, Supplier<BooleanSupplier> submit) {
+        if (!queue.scheduled.compareAndSet(false, true)) {
+            BooleanSupplier cancelled = queue.drainCancelled;
+            if (cancelled == null || !cancelled.getAsBoolean()) {
+                return;
+            }
+        }
+        scheduledDrains.incrementAndGet();
+        try {
+            queue.drainCancelled = submit.get();
+        } catch (RuntimeException e) {
+            // E.g. the plugin was disabled, don't block the queue forever
+            queue.scheduled.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Run a task on the thread of an {@link Entity}/main thread. If the current thread is already
+     * the right thread then the task is run immediately, otherwise it is scheduled for the next tick.
+     * @param entity the entity to run the task on
+     * @param task the task to be run
+     */
+    public void runOrNow(Entity entity, Runnable task) {
+        if (FOLIA ? plugin.getServer().isOwnedByCurrentRegion(entity) : plugin.getServer().isPrimaryThread()) {
+            task.run();
+        } else {
+            run(entity, task);
+        }
+    }
+
+    /**
+     * Run a task on the global region/main thread. If the current thread is already the main thread
+     * then the task is run immediately, otherwise it is scheduled for the next tick.
+     * @param task the task to be run
+     */
+    public void runOrNow(Runnable task) {
+        if (FOLIA ? plugin.getServer().isGlobalTickThread() : plugin.getServer().isPrimaryThread()) {
+            task.run();
+        } else {
+            run(task);
+        }
+    }
+
+    /**
+     * Run a task asynchronously on the plugin's async scheduler
+     * @param task the task to be run
+     */
+    public void runAsync(Runnable task) {
+        if (FOLIA) {
+            plugin.getServer().getAsyncScheduler().runNow(plugin, st -> task.run());
+        } else {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, task);
+        }
+    }
+
+    /**
+     * Run a task on the global region/main thread repeatedly. Timers are not batched.
+     * @param task   the task to be run
+     * @param delay  the ticks to wait before the first run, at least 1
+     * @param period the ticks between the runs, at least 1
+     * @return Cancels the timer when run
+     */
+    public Runnable runTimer(Runnable task, long delay, long period) {
+        if (FOLIA) {
+            ScheduledTask scheduledTask = plugin.getServer().getGlobalRegionScheduler().runAtFixedRate(plugin, st -> task.run(), delay, period);
+            return scheduledTask::cancel;
+        }
+        BukkitTask bukkitTask = plugin.getServer().getScheduler().runTaskTimer(plugin, task, delay, period);
+        return bukkitTask::cancel;
+    }
+
+    private void drainEntity(UUID id, TaskQueue queue) {
+        drain(queue);
+        // Don't keep queues of entities that don't get any tasks anymore. Tasks that are added to the
+        // removed queue in the meantime still get drained as the drain task holds onto the queue itself.
+        entityQueues.computeIfPresent(id, (k, q) -> q == queue && q.tasks.isEmpty() && !q.scheduled.get() ? null : q);
+    }
+
+    private void drain(TaskQueue queue) {
+        // Allow new tasks to schedule another drain before running the queued ones. Only the tasks
+        // that were queued until now run so that tasks which queue new tasks don't block the tick.
+        queue.scheduled.set(false);
+        Runnable task;
+        for (int i = queue.tasks.size(); i > 0 && (task = queue.tasks.poll()) != null; i--) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                plugin.getLogger().log(Level.SEVERE, "Exception while running a scheduled task", t);
+            }
+        }
+    }
+
+    /**
+     * Get the amount of tasks that were submitted to this scheduler
+     * @return The amount of submitted tasks
+     */
+    public long getSubmittedTasks() {
+        return submittedTasks.get();
+    }
+
+    /**
+     * Get the amount of drain tasks that were submitted to the server's scheduler.
+     * The difference to {@link #getSubmittedTasks()} is the amount of tasks that were batched together.
+     * @return The amount of scheduled drains
+     */
+    public long getScheduledDrains() {
+        return scheduledDrains.get();
+    }
+
+    /**
+     * Get the plugin that this scheduler runs the tasks for
+     * @return The plugin
+     */
+    public JavaPlugin getPlugin() {
+        return plugin;
+    }
+
+    private static class TaskQueue {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile BooleanSupplier drainCancelled;
+    }
+
+    /**
+     * Drops the scheduler of a plugin when it gets disabled so that it isn't kept across reloads
+     */
+    private static class DisableListener implements Listener {
+        private final JavaPlugin plugin;
+
+        private DisableListener(JavaPlugin plugin) {
+            this.plugin = plugin;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPluginDisable(PluginDisableEvent event) {
+            if (event.getPlugin() == plugin) {
+                SCHEDULERS.remove(plugin);
+                HandlerList.unregisterAll(this);
+            }
+        }
+    }
+}
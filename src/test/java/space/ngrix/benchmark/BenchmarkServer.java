@@ -0,0 +1,77 @@
+package space.ngrix.benchmark;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import space.ngrix.gui.GuiElement;
+import space.ngrix.gui.StaticGuiElement;
+import space.ngrix.standin.StandInPlugin;
+import space.ngrix.standin.StandInServer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sets up the stand-in server for the GUI benchmarks. Every benchmark starts a plugin and its viewers in the
+ * setup of a trial and resets the server in the tear down, so trials don't see each others GUIs and listeners.
+ */
+final class BenchmarkServer {
+
+    /**
+     * The rows of a full chest GUI: 45 slots for a group and a row with controls
+     */
+    static final String[] ROWS = {
+            "ggggggggg",
+            "ggggggggg",
+            "ggggggggg",
+            "ggggggggg",
+            "ggggggggg",
+            "p  dsc  n"
+    };
+
+    private BenchmarkServer() {}
+
+    /**
+     * Get the server and create the plugin for a trial
+     * @return The enabled plugin
+     */
+    static StandInPlugin start() {
+        return StandInServer.get().createPlugin("Benchmark");
+    }
+
+    /**
+     * Let players join
+     * @param amount    The amount of players
+     * @return The players
+     */
+    static List<Player> addPlayers(int amount) {
+        List<Player> players = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++) {
+            players.add(StandInServer.get().addPlayer("Viewer" + i));
+        }
+        return players;
+    }
+
+    /**
+     * Create static elements with a name and some lore like the items of a shop
+     * @param slotChar  The character of the elements
+     * @param amount    The amount of elements
+     * @return The elements
+     */
+    static GuiElement[] items(char slotChar, int amount) {
+        Material[] materials = {Material.DIAMOND, Material.EMERALD, Material.GOLD_INGOT, Material.BOOK, Material.PAPER};
+        GuiElement[] elements = new GuiElement[amount];
+        for (int i = 0; i < amount; i++) {
+            elements[i] = new StaticGuiElement(slotChar, new ItemStack(materials[i % materials.length], i % 64 + 1),
+                    click -> true, "Item " + i, "Costs " + (i * 10) + " coins", "Click to buy");
+        }
+        return elements;
+    }
+
+    /**
+     * Disable the plugin and let all players quit
+     */
+    static void stop() {
+        StandInServer.get().reset();
+    }
+}
@@ -0,0 +1,79 @@
+package space.ngrix.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import space.ngrix.config.backend.internal.ConfigKey;
+import space.ngrix.config.backend.internal.FileData;
+import space.ngrix.config.backend.internal.settings.DataType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sets the coins of players in a section that has few or many other players, with parsed keys and with string paths
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileDataInsertBenchmark {
+    private static final int KEYS = 1024;
+
+    @Param({"10", "10000"})
+    public int siblings;
+
+    private FileData data;
+    private ConfigKey[] keys;
+    private String[] paths;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> players = new HashMap<>();
+        UUID[] ids = new UUID[siblings];
+        for (int i = 0; i < siblings; i++) {
+            ids[i] = UUID.randomUUID();
+            Map<String, Object> player = new HashMap<>();
+            player.put("name", "Player" + i);
+            player.put("coins", i);
+            players.put(ids[i].toString(), player);
+        }
+        Map<String, Object> root = new HashMap<>();
+        root.put("players", players);
+        data = new FileData(root, DataType.UNSORTED);
+        keys = new ConfigKey[KEYS];
+        paths = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            paths[i] = "players." + ids[i % siblings] + ".coins";
+            keys[i] = ConfigKey.of(paths[i]);
+        }
+    }
+
+    @Benchmark
+    public FileData configKey() {
+        int i = next++ & (KEYS - 1);
+        data.insert(keys[i], i);
+        return data;
+    }
+
+    @Benchmark
+    public FileData path() {
+        int i = next++ & (KEYS - 1);
+        data.insert(paths[i], i);
+        return data;
+    }
+}
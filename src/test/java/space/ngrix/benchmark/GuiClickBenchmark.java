@@ -0,0 +1,112 @@
+package space.ngrix.benchmark;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import space.ngrix.gui.GuiElementGroup;
+import space.ngrix.gui.GuiPageElement;
+import space.ngrix.gui.InventoryGui;
+import space.ngrix.standin.StandInPlugin;
+import space.ngrix.standin.StandInServer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets viewers of a GUI click on it while other GUIs are open. Every other GUI has a viewer of its own, so the
+ * listener has to find the clicked GUI among all open ones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GuiClickBenchmark {
+
+    @Param({"1", "100"})
+    public int viewers;
+
+    @Param({"1", "100", "1000"})
+    public int guis;
+
+    private InventoryGui gui;
+    private List<Player> players;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StandInPlugin plugin = BenchmarkServer.start();
+        gui = createGui(plugin);
+        players = BenchmarkServer.addPlayers(viewers);
+        for (Player player : players) {
+            gui.show(player);
+        }
+        for (int i = 1; i < guis; i++) {
+            createGui(plugin).show(StandInServer.get().addPlayer("Other" + i));
+        }
+        StandInServer.get().tick();
+    }
+
+    private static InventoryGui createGui(StandInPlugin plugin) {
+        InventoryGui gui = new InventoryGui(plugin, "Shop", false, BenchmarkServer.ROWS,
+                new GuiElementGroup('g', BenchmarkServer.items('i', 90)),
+                new GuiPageElement('p', new ItemStack(Material.ARROW), GuiPageElement.PageAction.PREVIOUS, "Previous"),
+                new GuiPageElement('n', new ItemStack(Material.ARROW), GuiPageElement.PageAction.NEXT, "Next"));
+        gui.setFiller(new ItemStack(Material.GRAY_STAINED_GLASS_PANE));
+        return gui;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkServer.stop();
+    }
+
+    /**
+     * One viewer clicks once on an element of the group. The server isn't ticked, so this only measures finding
+     * the GUI and running the click, not the refresh of all open GUIs.
+     */
+    @Benchmark
+    public InventoryClickEvent clickOnce() {
+        return StandInServer.get().click(players.get(0), 0, ClickType.LEFT);
+    }
+
+    /**
+     * All viewers click on an element of the group
+     */
+    @Benchmark
+    public void clickElement(Blackhole blackhole) {
+        StandInServer server = StandInServer.get();
+        for (Player player : players) {
+            blackhole.consume(server.click(player, 0, ClickType.LEFT));
+        }
+        server.tick();
+    }
+
+    /**
+     * Click on the next page button, which pages and redraws the GUI for the player on the next tick
+     */
+    @Benchmark
+    public void clickPage(Blackhole blackhole) {
+        StandInServer server = StandInServer.get();
+        for (Player player : players) {
+            blackhole.consume(server.click(player, gui.getPageNumber(player) == 0 ? 53 : 45, ClickType.LEFT));
+        }
+        server.tick();
+    }
+}
@@ -0,0 +1,81 @@
+package space.ngrix.benchmark;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import space.ngrix.gui.GuiElementGroup;
+import space.ngrix.gui.InventoryGui;
+import space.ngrix.standin.StandInServer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redraws a GUI that all viewers have open, either with one inventory per viewer or with a shared one
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GuiDrawBenchmark {
+
+    @Param({"1", "100"})
+    public int viewers;
+
+    @Param({"false", "true"})
+    public boolean shared;
+
+    private InventoryGui gui;
+    private List<Player> players;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gui = new InventoryGui(BenchmarkServer.start(), "Shop", false, BenchmarkServer.ROWS,
+                new GuiElementGroup('g', BenchmarkServer.items('i', 45)));
+        gui.setFiller(new ItemStack(Material.GRAY_STAINED_GLASS_PANE));
+        gui.setSharedInventory(shared);
+        players = BenchmarkServer.addPlayers(viewers);
+        for (Player player : players) {
+            gui.show(player);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkServer.stop();
+    }
+
+    /**
+     * Request a draw for all viewers and run the tick that does the merged draws
+     */
+    @Benchmark
+    public void requestDraw() {
+        gui.draw();
+        StandInServer.get().tick();
+    }
+
+    /**
+     * Draw directly for every viewer
+     */
+    @Benchmark
+    public void drawEach() {
+        for (Player player : players) {
+            gui.draw(player);
+        }
+    }
+}
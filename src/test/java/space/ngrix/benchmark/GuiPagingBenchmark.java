@@ -0,0 +1,72 @@
+package space.ngrix.benchmark;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import space.ngrix.gui.GuiElementGroup;
+import space.ngrix.gui.GuiPageElement;
+import space.ngrix.gui.InventoryGui;
+import space.ngrix.standin.StandInServer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns the page of a group with many elements for all viewers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GuiPagingBenchmark {
+
+    @Param({"1", "100"})
+    public int viewers;
+
+    @Param({"450", "4500"})
+    public int elements;
+
+    private InventoryGui gui;
+    private List<Player> players;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gui = new InventoryGui(BenchmarkServer.start(), "Shop %page%/%pages%", false, BenchmarkServer.ROWS,
+                new GuiElementGroup('g', BenchmarkServer.items('i', elements)),
+                new GuiPageElement('p', new ItemStack(Material.ARROW), GuiPageElement.PageAction.PREVIOUS, "Previous"),
+                new GuiPageElement('n', new ItemStack(Material.ARROW), GuiPageElement.PageAction.NEXT, "Next"));
+        gui.setFiller(new ItemStack(Material.GRAY_STAINED_GLASS_PANE));
+        players = BenchmarkServer.addPlayers(viewers);
+        for (Player player : players) {
+            gui.show(player);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkServer.stop();
+    }
+
+    @Benchmark
+    public void nextPage() {
+        for (Player player : players) {
+            gui.setPageNumber(player, (gui.getPageNumber(player) + 1) % gui.getPageAmount(player));
+        }
+        StandInServer.get().tick();
+    }
+}
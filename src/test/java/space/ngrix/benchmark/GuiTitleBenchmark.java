@@ -0,0 +1,70 @@
+package space.ngrix.benchmark;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import space.ngrix.gui.GuiElementGroup;
+import space.ngrix.gui.InventoryGui;
+import space.ngrix.standin.StandInServer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Changes the title of an open GUI by updating the open view and by recreating and reopening the inventory
+ * like the GUIs did before titles could be updated
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GuiTitleBenchmark {
+
+    private InventoryGui gui;
+    private Player player;
+    private int changes = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gui = new InventoryGui(BenchmarkServer.start(), "Shop", false, BenchmarkServer.ROWS,
+                new GuiElementGroup('g', BenchmarkServer.items('i', 45)));
+        gui.setFiller(new ItemStack(Material.GRAY_STAINED_GLASS_PANE));
+        player = BenchmarkServer.addPlayers(1).get(0);
+        gui.show(player);
+        StandInServer.get().tick();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkServer.stop();
+    }
+
+    @Benchmark
+    public void updateTitle() {
+        gui.setTitle(nextTitle(), player, true);
+    }
+
+    @Benchmark
+    public void recreateInventory() {
+        gui.setTitle(nextTitle());
+        gui.show(player, false);
+        StandInServer.get().tick();
+    }
+
+    private String nextTitle() {
+        return (changes++ & 1) == 0 ? "Shop (1/2)" : "Shop (2/2)";
+    }
+}
@@ -0,0 +1,83 @@
+package space.ngrix.benchmark;
+
+import org.bukkit.ChatColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import space.ngrix.gui.PlaceholderTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces the GUI placeholders in a title and in the text of an item with a compiled template and with the
+ * regex replacement that the GUIs used before the templates
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlaceholderBenchmark {
+    private static final Map<String, Pattern> PATTERN_CACHE = new HashMap<>();
+
+    @Param({"title", "item"})
+    public String text;
+
+    private String raw;
+    private PlaceholderTemplate template;
+    private Map<String, String> values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (text.equals("title")) {
+            raw = "&8Shop &7(%page%/%pages%)";
+        } else {
+            raw = "&6Diamond Sword\n&7Costs &e250 coins\n &7Sold by &b%owner%\n&%color%Page %page% of %pages%\n&8Next: %nextpage%";
+        }
+        template = PlaceholderTemplate.compile(raw);
+        // Same order as the placeholders of the GUI
+        values = new LinkedHashMap<>();
+        values.put("plugin", "Benchmark");
+        values.put("owner", "Trader");
+        values.put("title", "Shop");
+        values.put("page", "2");
+        values.put("nextpage", "3");
+        values.put("prevpage", "1");
+        values.put("pages", "5");
+        values.put("color", "a");
+    }
+
+    @Benchmark
+    public String template() {
+        return template.render(values::get);
+    }
+
+    @Benchmark
+    public String regex() {
+        String string = raw;
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String placeholder = "%" + entry.getKey() + "%";
+            Pattern pattern = PATTERN_CACHE.get(placeholder);
+            if (pattern == null) {
+                PATTERN_CACHE.put(placeholder, pattern = Pattern.compile(placeholder, Pattern.LITERAL));
+            }
+            string = pattern.matcher(string).replaceAll(Matcher.quoteReplacement(entry.getValue()));
+        }
+        return ChatColor.translateAlternateColorCodes('&', string);
+    }
+}
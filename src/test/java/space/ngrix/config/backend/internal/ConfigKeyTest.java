@@ -0,0 +1,62 @@
+package space.ngrix.config.backend.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import space.ngrix.config.backend.Json;
+import space.ngrix.config.backend.sections.FlatFileSection;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigKeyTest {
+
+  @TempDir
+  File directory;
+
+  @Test
+  public void resolvesChildPaths() {
+    ConfigKey players = ConfigKey.of("players");
+    ConfigKey coins = players.resolve("uuid.coins");
+    assertEquals("players.uuid.coins", coins.toString());
+    assertEquals(3, coins.size());
+    assertEquals("players", coins.getPart(0));
+    assertEquals("uuid", coins.getPart(1));
+    assertEquals("coins", coins.getPart(2));
+    assertEquals(coins, players.resolve(ConfigKey.of("uuid.coins")));
+    assertEquals(coins, ConfigKey.of("players").resolve("uuid").resolve("coins"));
+  }
+
+  @Test
+  public void keepsRecentlyUsedKeysWhenCacheIsFull() {
+    ConfigKey hot = ConfigKey.of("settings.language");
+    for (int i = 0; i < 20_000; i++) {
+      ConfigKey.of("players.player" + i + ".coins");
+      if (i % 1_000 == 0) {
+        assertSame(hot, ConfigKey.of("settings.language"));
+      }
+    }
+    assertSame(hot, ConfigKey.of("settings.language"));
+    // Evicted keys are parsed again
+    assertEquals(ConfigKey.of("players.player0.coins"), ConfigKey.of("players.player0.coins"));
+  }
+
+  @Test
+  public void sectionUsesPrefixedKeys() {
+    Json json = new Json(new File(directory, "players.json"));
+    FlatFileSection section = json.getSection("players");
+    ConfigKey coins = ConfigKey.of("uuid.coins");
+    section.set(coins, 10);
+
+    assertTrue(section.contains(coins));
+    assertEquals(10, section.get(coins));
+    assertTrue(json.contains(ConfigKey.of("players.uuid.coins")));
+    assertEquals(10, json.getInt("players.uuid.coins"));
+    assertFalse(json.contains(coins));
+
+    FlatFileSection nested = section.getSection("uuid");
+    assertEquals(10, nested.get(ConfigKey.of("coins")));
+    nested.remove(ConfigKey.of("coins"));
+    assertFalse(section.contains(coins));
+  }
+}
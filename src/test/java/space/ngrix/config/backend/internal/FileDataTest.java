@@ -0,0 +1,90 @@
+package space.ngrix.config.backend.internal;
+
+import org.junit.jupiter.api.Test;
+import space.ngrix.config.backend.internal.settings.DataType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unchecked")
+public class FileDataTest {
+
+  @Test
+  public void returnedNestedMapsShowLaterInserts() {
+    FileData data = new FileData(new HashMap<>(), DataType.UNSORTED);
+    data.insert("players.a.coins", 1);
+    Map<String, Object> players = (Map<String, Object>) data.get("players");
+    Map<String, Object> root = data.toMap();
+
+    data.insert("players.b.coins", 2);
+
+    assertTrue(players.containsKey("b"));
+    assertSame(players, root.get("players"));
+    assertSame(players, data.get("players"));
+  }
+
+  @Test
+  public void insertedMapsAreNotShared() {
+    FileData data = new FileData(new HashMap<>(), DataType.UNSORTED);
+    Map<String, Object> value = new HashMap<>();
+    value.put("coins", 1);
+    data.insert("players.a", value);
+
+    value.put("coins", 2);
+    data.insert("players.a.gems", 3);
+
+    assertEquals(1, data.get("players.a.coins"));
+    assertFalse(value.containsKey("gems"));
+  }
+
+  @Test
+  public void sizeCountsSublayersOfKey() {
+    FileData data = new FileData(new HashMap<>(), DataType.UNSORTED);
+    data.insert("players.a.coins", 1);
+    data.insert("players.a.gems", 2);
+    data.insert("settings.debug", false);
+
+    assertEquals(3, data.size("players"));
+    assertEquals(2, data.size("players.a"));
+    assertEquals(0, data.size("players.a.coins"));
+    assertEquals(0, data.size("missing"));
+    data.setIndexed(true);
+    assertEquals(3, data.size("players"));
+  }
+
+  @Test
+  public void indexedKeySetsFollowInserts() {
+    FileData data = new FileData(new HashMap<>(), DataType.UNSORTED);
+    data.setIndexed(true);
+    assertTrue(data.keySet("players").isEmpty());
+    assertEquals(0, data.size("players"));
+
+    data.insert("players.a.coins", 1);
+    assertEquals(1, data.keySet("players").size());
+    assertEquals(2, data.size("players"));
+
+    data.insert("players.b.coins", 2);
+    assertTrue(data.keySet("players").contains("b.coins"));
+    assertTrue(data.keySet().contains("players.b.coins"));
+    assertEquals(4, data.size("players"));
+
+    data.remove("players.a");
+    assertFalse(data.keySet("players").contains("a.coins"));
+    assertEquals(2, data.size("players"));
+  }
+
+  @Test
+  public void copyDoesNotShowLaterInserts() {
+    FileData data = new FileData(new HashMap<>(), DataType.UNSORTED);
+    data.insert("players.a.coins", 1);
+    FileData copy = data.copy();
+
+    data.insert("players.a.coins", 2);
+    data.insert("players.b.coins", 3);
+
+    assertEquals(1, copy.get("players.a.coins"));
+    assertFalse(copy.containsKey("players.b"));
+  }
+}
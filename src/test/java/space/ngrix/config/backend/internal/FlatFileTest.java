@@ -0,0 +1,231 @@
+package space.ngrix.config.backend.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import space.ngrix.config.backend.Json;
+import space.ngrix.config.backend.internal.serialize.SimplixSerializable;
+import space.ngrix.config.backend.internal.serialize.SimplixSerializer;
+import space.ngrix.config.backend.internal.settings.ReloadSettings;
+import space.ngrix.config.backend.sections.FlatFileSection;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlatFileTest {
+
+  @TempDir
+  File directory;
+
+  private static String read(File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void writeDelayKeepsChangesUntilFlushed() throws IOException {
+    Json json = new Json(new File(directory, "delayed.json"));
+    json.setWriteDelay(60_000);
+    json.set("a.b", 1);
+    json.set("a.c", 2);
+    assertFalse(read(json.getFile()).contains("\"b\""));
+    assertEquals(1, json.getMergedWrites());
+
+    FlatFile.flushAll();
+    String written = read(json.getFile());
+    assertTrue(written.contains("\"b\""));
+    assertTrue(written.contains("\"c\""));
+  }
+
+  @Test
+  public void writtenSnapshotDoesNotChangeWithData() throws IOException {
+    Json json = new Json(new File(directory, "snapshot.json"));
+    json.set("a.b", 1);
+    FileData snapshot = json.getFileData().copy();
+    json.set("a.c", 2);
+    assertFalse(snapshot.containsKey("a.c"));
+    assertTrue(read(json.getFile()).contains("\"c\""));
+  }
+
+  @Test
+  public void removeUsesPathPrefix() {
+    Json json = new Json(new File(directory, "prefix.json"));
+    json.setPathPrefix("players");
+    json.set("a", 1);
+    json.set("b", 2);
+    json.set("c", 3);
+    json.remove("a");
+    json.removeAll("b");
+
+    assertFalse(json.contains("a"));
+    assertFalse(json.contains("b"));
+    assertTrue(json.contains("c"));
+    json.clearPathPrefix();
+    assertEquals(1, json.singleLayerKeySet("players").size());
+  }
+
+  @Test
+  public void writeDelayIsNotPartOfEquality() {
+    File file = new File(directory, "equal.json");
+    Json json = new Json(file);
+    int hashCode = json.hashCode();
+    json.setWriteDelay(1_000);
+    assertEquals(hashCode, json.hashCode());
+    json.setWriteDelay(0);
+  }
+
+  @Test
+  public void writesDataDirectlyWithoutWriteDelay() {
+    RecordingFile file = new RecordingFile(new File(directory, "direct.json"));
+    file.set("a", 1);
+    assertSame(file.getFileData(), file.written);
+
+    file.setWriteDelay(60_000);
+    file.set("b", 2);
+    file.flush();
+    assertNotSame(file.getFileData(), file.written);
+    assertTrue(file.written.containsKey("b"));
+    file.setWriteDelay(0);
+  }
+
+  @Test
+  public void failedWriteKeepsFileDirty() {
+    RecordingFile file = new RecordingFile(new File(directory, "failing.json"));
+    file.failing = true;
+    file.set("a", 1);
+    assertTrue(file.isDirty());
+
+    file.failing = false;
+    file.flush();
+    assertFalse(file.isDirty());
+    assertTrue(file.written.containsKey("a"));
+
+    file.setWriteDelay(60_000);
+    file.set("b", 2);
+    file.failing = true;
+    file.flush();
+    assertTrue(file.isDirty());
+    file.failing = false;
+    file.setWriteDelay(0);
+    assertFalse(file.isDirty());
+    assertTrue(file.written.containsKey("b"));
+  }
+
+  @Test
+  public void batchWritesFileOnce() {
+    SimplixSerializer.registerSerializable(new PositionSerializable());
+    RecordingFile file = new RecordingFile(new File(directory, "batch.json"));
+    file.setReloadSettings(ReloadSettings.AUTOMATICALLY);
+    file.set("old", 0);
+    int writes = file.writes;
+    int reads = file.reads;
+    long merged = file.getMergedWrites();
+
+    file.batch(storage -> {
+      storage.set("a", 1);
+      storage.remove("old");
+      storage.setSerializable("position", new Position(3, 4));
+      // Would reload and drop the changes above if it checked for a reload
+      assertEquals(1, storage.getInt("a"));
+      file.getSection("players").batch(players -> {
+        players.set("first.coins", 10);
+        players.set("second.coins", 20);
+      });
+    });
+
+    assertEquals(writes + 1, file.writes);
+    assertEquals(reads + 1, file.reads);
+    assertEquals(merged + 4, file.getMergedWrites());
+    assertFalse(file.written.containsKey("old"));
+    assertEquals(1, file.written.get("a"));
+    assertEquals("3,4", file.written.get("position"));
+    assertEquals(10, file.written.get("players.first.coins"));
+    assertEquals(20, file.written.get("players.second.coins"));
+  }
+
+  @Test
+  public void sectionBatchWritesFileOnce() {
+    SimplixSerializer.registerSerializable(new PositionSerializable());
+    RecordingFile file = new RecordingFile(new File(directory, "section.json"));
+    file.set("players.first.coins", 1);
+    int writes = file.writes;
+    long merged = file.getMergedWrites();
+
+    FlatFileSection section = file.getSection("players");
+    section.batch(players -> {
+      players.set("second.coins", 2);
+      players.remove("first");
+      players.setSerializable("second.position", new Position(1, 2));
+      players.batch(nested -> nested.set("third.coins", 3));
+    });
+
+    assertEquals(writes + 1, file.writes);
+    assertEquals(merged + 3, file.getMergedWrites());
+    assertFalse(file.written.containsKey("players.first"));
+    assertEquals(2, file.written.get("players.second.coins"));
+    assertEquals("1,2", file.written.get("players.second.position"));
+    assertEquals(3, file.written.get("players.third.coins"));
+  }
+
+  private static final class Position {
+    private final int x;
+    private final int y;
+
+    private Position(final int x, final int y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+
+  private static final class PositionSerializable implements SimplixSerializable<Position> {
+
+    @Override
+    public Position deserialize(final Object obj) {
+      final String[] parts = obj.toString().split(",");
+      return new Position(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    @Override
+    public Object serialize(final Position position) {
+      return position.x + "," + position.y;
+    }
+
+    @Override
+    public Class<Position> getClazz() {
+      return Position.class;
+    }
+  }
+
+  // Keeps the written data instead of writing it and can fail like a full disk
+  private static final class RecordingFile extends FlatFile {
+    private volatile FileData written;
+    private volatile boolean failing = false;
+    private volatile int writes = 0;
+    private volatile int reads = 0;
+
+    private RecordingFile(File file) {
+      super(file);
+      create();
+      forceReload();
+    }
+
+    @Override
+    protected Map<String, Object> readToMap() {
+      this.reads++;
+      return this.written != null ? this.written.copy().toMap() : new HashMap<>();
+    }
+
+    @Override
+    protected void write(final FileData data) throws IOException {
+      if (this.failing) {
+        throw new IOException("No space left on device");
+      }
+      this.written = data;
+      this.writes++;
+    }
+  }
+}
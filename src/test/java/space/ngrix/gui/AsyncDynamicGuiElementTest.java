@@ -0,0 +1,108 @@
+package space.ngrix.gui;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import space.ngrix.standin.StandInPlugin;
+import space.ngrix.standin.StandInServer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncDynamicGuiElementTest {
+
+    private StandInServer server;
+    private StandInPlugin plugin;
+
+    @BeforeEach
+    public void setUp() {
+        server = StandInServer.get();
+        plugin = server.createPlugin("AsyncDynamicGuiElementTest");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.reset();
+    }
+
+    @Test
+    public void slowPlayerQueryIsNotRestartedByRefresh() throws InterruptedException {
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncDynamicGuiElement element = new AsyncDynamicGuiElement('a',
+                new StaticGuiElement('a', new ItemStack(Material.BARRIER), "Loading"), who -> {
+            queries.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new StaticGuiElement('a', new ItemStack(Material.EMERALD), "Balance");
+        });
+        element.setRefreshAfterWrite(1);
+        InventoryGui gui = new InventoryGui(plugin, "Balance", false, new String[]{"a        "}, element);
+        Player player = server.addPlayer("Viewer");
+
+        gui.show(player);
+        assertEquals(Material.BARRIER, getItem(player).getType());
+        // The loader is slower than the refresh interval, refresh checks run every few ticks
+        for (int i = 0; i < 30; i++) {
+            Thread.sleep(2);
+            server.tick();
+        }
+        assertEquals(1, queries.get());
+        assertTrue(element.isLoading(player));
+        assertFalse(element.needsRefresh(player));
+
+        release.countDown();
+        assertTrue(server.tickUntil(() -> getItem(player).getType() == Material.EMERALD, 5000));
+        assertFalse(element.isLoading(player));
+    }
+
+    @Test
+    public void clearCacheDropsRunningQueries() throws InterruptedException {
+        AtomicInteger queries = new AtomicInteger();
+        AtomicBoolean cleared = new AtomicBoolean();
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncDynamicGuiElement element = new AsyncDynamicGuiElement('a',
+                new StaticGuiElement('a', new ItemStack(Material.BARRIER), "Loading"), who -> {
+            queries.incrementAndGet();
+            if (cleared.get()) {
+                return new StaticGuiElement('a', new ItemStack(Material.EMERALD), "New");
+            }
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new StaticGuiElement('a', new ItemStack(Material.STONE), "Old");
+        });
+        InventoryGui gui = new InventoryGui(plugin, "Balance", false, new String[]{"a        "}, element);
+        Player player = server.addPlayer("Viewer");
+
+        gui.show(player);
+        assertTrue(element.isLoading(player));
+        element.clearCache();
+        cleared.set(true);
+        assertFalse(element.isLoading(player));
+
+        element.update(player);
+        assertTrue(server.tickUntil(() -> getItem(player).getType() == Material.EMERALD, 5000));
+        release.countDown();
+        // The result of the first query is dropped when it arrives
+        assertFalse(server.tickUntil(() -> getItem(player).getType() == Material.STONE, 200));
+        assertEquals(2, queries.get());
+    }
+
+    private static ItemStack getItem(Player player) {
+        ItemStack item = player.getOpenInventory().getTopInventory().getItem(0);
+        return item != null ? item : new ItemStack(Material.AIR);
+    }
+}
@@ -0,0 +1,30 @@
+package space.ngrix.gui;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GuiMetricsTest {
+
+    @AfterEach
+    public void reset() {
+        GuiMetrics.reset();
+    }
+
+    @Test
+    public void sameIdSharesMetrics() {
+        assertSame(GuiMetrics.get("shop"), GuiMetrics.get("shop"));
+        assertNotSame(GuiMetrics.get("shop"), GuiMetrics.get("warps"));
+    }
+
+    @Test
+    public void idsAreBounded() {
+        for (int i = 0; i < GuiMetrics.MAX_IDS * 2; i++) {
+            GuiMetrics.get("Title of player " + i);
+        }
+        assertTrue(GuiMetrics.getAll().size() <= GuiMetrics.MAX_IDS + 1);
+        assertEquals(GuiMetrics.OVERFLOW_ID, GuiMetrics.get("Title of player " + GuiMetrics.MAX_IDS * 3).getId());
+        assertEquals("Title of player 0", GuiMetrics.get("Title of player 0").getId());
+    }
+}
@@ -0,0 +1,186 @@
+package space.ngrix.gui;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import space.ngrix.standin.StandInPlugin;
+import space.ngrix.standin.StandInServer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryGuiTest {
+
+    private static final int REFRESH_TICKS = 10;
+
+    private StandInServer server;
+    private StandInPlugin plugin;
+
+    @BeforeEach
+    public void setUp() {
+        server = StandInServer.get();
+        plugin = server.createPlugin("InventoryGuiTest");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.reset();
+    }
+
+    @Test
+    public void globalPlaceholdersAreNotPersonalized() {
+        InventoryGui gui = new InventoryGui(plugin, "%plugin% - %title%", false, new String[]{"a        "},
+                new StaticGuiElement('a', new ItemStack(Material.STONE), "&a%owner%"));
+        assertFalse(gui.isPersonalized());
+    }
+
+    @Test
+    public void otherPlaceholdersArePersonalized() {
+        StaticGuiElement element = new StaticGuiElement('a', new ItemStack(Material.STONE), "Stone");
+        InventoryGui gui = new InventoryGui(plugin, "Shop", false, new String[]{"a        "}, element);
+        assertFalse(gui.isPersonalized());
+
+        element.setText("Balance: %balance%");
+        assertTrue(gui.isPersonalized());
+
+        element.setText("Stone");
+        gui.setTitle("%player_name%'s shop");
+        assertTrue(gui.isPersonalized());
+    }
+
+    @Test
+    public void nestedPlayerDynamicElementIsPersonalized() {
+        GuiElementGroup group = new GuiElementGroup('g',
+                new StaticGuiElement('s', new ItemStack(Material.STONE)),
+                new DynamicGuiElement('d', who -> new StaticGuiElement('d', new ItemStack(Material.PAPER), who.getName())));
+        InventoryGui gui = new InventoryGui(plugin, "Group", false, new String[]{"gg       "}, group);
+        assertTrue(gui.isPersonalized());
+    }
+
+    @Test
+    public void personalizedGuiDoesNotShareInventory() {
+        InventoryGui gui = new InventoryGui(plugin, "Shop", false, new String[]{"a        "},
+                new StaticGuiElement('a', new ItemStack(Material.STONE), "%balance%"));
+        gui.setSharedInventory(true);
+        Player first = server.addPlayer("First");
+        Player second = server.addPlayer("Second");
+        gui.show(first);
+        gui.show(second);
+        assertNotSame(first.getOpenInventory().getTopInventory(), second.getOpenInventory().getTopInventory());
+    }
+
+    @Test
+    public void showAsyncBuildsItemsFromSnapshot() {
+        StaticGuiElement element = new StaticGuiElement('a', new ItemStack(Material.DIAMOND), "Page %page%");
+        InventoryGui gui = new InventoryGui(plugin, "Async", false, new String[]{"a        "}, element);
+        Player player = server.addPlayer("Viewer");
+
+        gui.showAsync(player);
+        // Changes after the call must not reach the items that are built on another thread
+        element.getRawItem().setType(Material.GOLD_INGOT);
+        element.setText("Changed");
+        assertTrue(server.tickUntil(() -> InventoryGui.getOpen(player) == gui, 5000));
+        ItemStack item = player.getOpenInventory().getTopInventory().getItem(0);
+        assertEquals(Material.DIAMOND, item.getType());
+        assertEquals("Page 1", item.getItemMeta().getDisplayName());
+    }
+
+    @Test
+    public void animatesElementsNestedInGroupsAndDynamicElements() {
+        GuiElementGroup group = new GuiElementGroup('g', new AnimatedGuiElement('a', 2,
+                new StaticGuiElement('a', new ItemStack(Material.STONE)),
+                new StaticGuiElement('a', new ItemStack(Material.DIAMOND))));
+        DynamicGuiElement dynamic = new DynamicGuiElement('d', who -> new AnimatedGuiElement('d', 2,
+                new StaticGuiElement('d', new ItemStack(Material.PAPER)),
+                new StaticGuiElement('d', new ItemStack(Material.EMERALD))));
+        InventoryGui gui = new InventoryGui(plugin, "Animated", false, new String[]{"gd       "}, group, dynamic);
+        Player player = server.addPlayer("Viewer");
+
+        gui.show(player);
+        assertEquals(Material.STONE, getItem(player, 0).getType());
+        assertEquals(Material.PAPER, getItem(player, 1).getType());
+        assertTrue(server.tickUntil(() -> getItem(player, 0).getType() == Material.DIAMOND, 1000));
+        assertEquals(Material.EMERALD, getItem(player, 1).getType());
+    }
+
+    @Test
+    public void timersOnlyRunWhileNeeded() {
+        InventoryGui plain = new InventoryGui(plugin, "Plain", false, new String[]{"a        "},
+                new StaticGuiElement('a', new ItemStack(Material.STONE)));
+        InventoryGui animated = new InventoryGui(plugin, "Animated", false, new String[]{"a        "},
+                new AnimatedGuiElement('a', 2,
+                        new StaticGuiElement('a', new ItemStack(Material.STONE)),
+                        new StaticGuiElement('a', new ItemStack(Material.DIAMOND))));
+        InventoryGui dynamic = new InventoryGui(plugin, "Dynamic", false, new String[]{"a        "},
+                new DynamicGuiElement('a', who -> new StaticGuiElement('a', new ItemStack(Material.PAPER))));
+        Player first = server.addPlayer("First");
+        Player second = server.addPlayer("Second");
+        Player third = server.addPlayer("Third");
+
+        plain.show(first);
+        server.tick(2);
+        assertEquals(0, server.getTimers(plugin));
+
+        animated.show(second);
+        server.tick(2);
+        assertEquals(1, server.getTimers(plugin));
+
+        // The dynamic element only needs the refresh timer
+        dynamic.show(third);
+        server.tick(2);
+        assertEquals(2, server.getTimers(plugin));
+
+        second.closeInventory();
+        server.tick(2);
+        assertEquals(1, server.getTimers(plugin));
+
+        third.closeInventory();
+        server.tick(REFRESH_TICKS);
+        assertEquals(0, server.getTimers(plugin));
+
+        animated.show(second);
+        assertTrue(server.tickUntil(() -> getItem(second, 0).getType() == Material.DIAMOND, 1000));
+        assertEquals(1, server.getTimers(plugin));
+    }
+
+    @Test
+    public void droppedClickDoesNotUseUpOtherLimiters() {
+        AtomicInteger clicks = new AtomicInteger();
+        StaticGuiElement element = new StaticGuiElement('a', new ItemStack(Material.STONE), click -> {
+            clicks.incrementAndGet();
+            return true;
+        });
+        ClickLimiter elementLimiter = new ClickLimiter(0.01, 2);
+        element.setClickLimiter(elementLimiter);
+        InventoryGui gui = new InventoryGui(plugin, "Limited", false, new String[]{"a        "}, element);
+        ClickLimiter guiLimiter = new ClickLimiter(0.01, 1);
+        gui.setClickLimiter(guiLimiter);
+        Player player = server.addPlayer("Viewer");
+        gui.show(player);
+
+        server.click(player, 0, ClickType.LEFT);
+        assertEquals(1, clicks.get());
+        // The GUI's limiter drops the second click, the element's limiter still has a click left
+        server.click(player, 0, ClickType.LEFT);
+        assertEquals(1, clicks.get());
+        assertEquals(1, gui.getDroppedClicks());
+        assertEquals(1, guiLimiter.getDroppedClicks());
+        assertEquals(0, elementLimiter.getDroppedClicks());
+        assertTrue(elementLimiter.canClick(player));
+
+        gui.setClickLimiter(null);
+        server.click(player, 0, ClickType.LEFT);
+        assertEquals(2, clicks.get());
+        assertFalse(elementLimiter.canClick(player));
+    }
+
+    private static ItemStack getItem(Player player, int slot) {
+        ItemStack item = player.getOpenInventory().getTopInventory().getItem(slot);
+        return item != null ? item : new ItemStack(Material.AIR);
+    }
+}
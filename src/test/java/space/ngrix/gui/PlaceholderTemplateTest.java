@@ -0,0 +1,89 @@
+package space.ngrix.gui;
+
+import org.bukkit.ChatColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlaceholderTemplateTest {
+
+    private static String color(char code) {
+        return String.valueOf(ChatColor.COLOR_CHAR) + code;
+    }
+
+    @Test
+    public void replacesPlaceholders() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("Page %page% of %pages%");
+        assertEquals("Page 2 of 5", template.render(placeholder -> placeholder.equals("page") ? "2" : "5"));
+    }
+
+    @Test
+    public void keepsUnknownPlaceholders() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("%known% %unknown%");
+        assertEquals("value %unknown%", template.render(placeholder -> placeholder.equals("known") ? "value" : null));
+    }
+
+    @Test
+    public void translatesColorCodeBeforePlaceholder() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("&%color%Name");
+        assertEquals(color('c') + "Name", template.render(placeholder -> "c"));
+    }
+
+    @Test
+    public void keepsColorCodeBeforeUnknownPlaceholder() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("&a&%unknown% 100&");
+        assertEquals(color('a') + "&%unknown% 100&", template.render(placeholder -> null));
+    }
+
+    @Test
+    public void rendersResolvedValues() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("&7%page%/%pages% (%page%)");
+        assertEquals(Arrays.asList("page", "pages"), template.getPlaceholders());
+        assertEquals(color('7') + "2/5 (2)", template.render(new String[]{"2", "5"}));
+    }
+
+    @Test
+    public void translatesColorCodesInValues() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("&a%name%");
+        assertEquals(color('a') + color('b') + "Name", template.render(placeholder -> "&bName"));
+    }
+
+    @Test
+    public void translatesConstantText() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("&aConstant 100%");
+        assertTrue(template.isConstant());
+        assertEquals(color('a') + "Constant 100%", template.render(placeholder -> "unused"));
+    }
+
+    @Test
+    public void validNames() {
+        assertTrue(PlaceholderTemplate.isValidName("player_name"));
+        assertTrue(PlaceholderTemplate.isValidName("vault:balance.2-digits"));
+        assertFalse(PlaceholderTemplate.isValidName("player name"));
+        assertFalse(PlaceholderTemplate.isValidName("a%b"));
+        assertFalse(PlaceholderTemplate.isValidName(""));
+        assertFalse(PlaceholderTemplate.isValidName(null));
+    }
+
+    @Test
+    public void replacesLiteralPlaceholdersWithAnyName() {
+        Map<String, String> replacements = new LinkedHashMap<>();
+        replacements.put("player name", "Steve");
+        replacements.put("{rank}", "&cAdmin");
+        replacements.put("color", "e");
+        replacements.put("missing", null);
+        assertEquals("Steve " + color('c') + "Admin " + color('e') + "Yellow null",
+                PlaceholderTemplate.replaceLiteral("%player name% %{rank}% &%color%Yellow %missing%", replacements));
+    }
+
+    @Test
+    public void invalidNamesAreNotFoundByTemplates() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("%player name%");
+        assertTrue(template.isConstant());
+        assertEquals("%player name%", template.render(placeholder -> "Steve"));
+    }
+}
@@ -0,0 +1,77 @@
+package space.ngrix.gui;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import space.ngrix.standin.StandInPlugin;
+import space.ngrix.standin.StandInServer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StaticGuiElementTest {
+
+    private StandInServer server;
+    private StandInPlugin plugin;
+
+    @BeforeEach
+    public void setUp() {
+        server = StandInServer.get();
+        plugin = server.createPlugin("StaticGuiElementTest");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.reset();
+    }
+
+    @Test
+    public void drawsCachedItemUntilPlaceholderValuesChange() {
+        StaticGuiElement element = new StaticGuiElement('a', new ItemStack(Material.DIAMOND), "&aPage %page%", "%pages% pages");
+        GuiElementGroup group = new GuiElementGroup('g');
+        for (int i = 0; i < 10; i++) {
+            group.addElement(new StaticGuiElement('i', new ItemStack(Material.PAPER)));
+        }
+        InventoryGui gui = new InventoryGui(plugin, "Cache", false, new String[]{"agggg"}, element, group);
+        Player player = server.addPlayer("Viewer");
+        gui.show(player);
+
+        ItemStack first = element.getDrawItem(player, 0);
+        assertSame(first, element.getDrawItem(player, 0));
+        assertNotSame(first, element.getItem(player, 0));
+        assertEquals(first, element.getItem(player, 0));
+        assertEquals("3 pages", first.getItemMeta().getLore().get(0));
+
+        gui.setPageNumber(player, 1);
+        ItemStack second = element.getDrawItem(player, 0);
+        assertNotSame(first, second);
+        assertTrue(second.getItemMeta().getDisplayName().endsWith("Page 2"));
+        gui.setPageNumber(player, 0);
+        assertSame(first, element.getDrawItem(player, 0));
+    }
+
+    @Test
+    public void rendersAgainAfterItemOrTextChanged() {
+        StaticGuiElement element = new StaticGuiElement('a', new ItemStack(Material.DIAMOND), "Diamond");
+        InventoryGui gui = new InventoryGui(plugin, "Cache", false, new String[]{"a        "}, element);
+        Player player = server.addPlayer("Viewer");
+        gui.show(player);
+        assertEquals(Material.DIAMOND, element.getDrawItem(player, 0).getType());
+
+        element.setItem(new ItemStack(Material.EMERALD));
+        assertEquals(Material.EMERALD, element.getDrawItem(player, 0).getType());
+
+        element.setText("Emerald");
+        assertEquals("Emerald", element.getDrawItem(player, 0).getItemMeta().getDisplayName());
+
+        element.getRawItem().setType(Material.GOLD_INGOT);
+        element.getText()[0] = "Gold";
+        assertEquals(Material.EMERALD, element.getDrawItem(player, 0).getType());
+        element.invalidateRenderCache();
+        ItemStack item = element.getDrawItem(player, 0);
+        assertEquals(Material.GOLD_INGOT, item.getType());
+        assertEquals("Gold", item.getItemMeta().getDisplayName());
+    }
+}
@@ -0,0 +1,173 @@
+package space.ngrix.standin;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An inventory of the stand-in server. Like on the server items are copied when they are set and the returned
+ * items are the stored ones, so changing them changes the inventory.
+ */
+final class StandInInventory implements StandInProxy.Handler {
+    private final InventoryType type;
+    private final InventoryHolder holder;
+    private final String title;
+    private final Component titleComponent;
+    private final ItemStack[] contents;
+    private final List<HumanEntity> viewers = new ArrayList<>();
+
+    private StandInInventory(InventoryType type, int size, InventoryHolder holder, String title, Component titleComponent) {
+        this.type = type;
+        this.holder = holder;
+        this.title = title;
+        this.titleComponent = titleComponent;
+        this.contents = new ItemStack[size];
+    }
+
+    /**
+     * Create an inventory
+     * @param type              The type of the inventory
+     * @param size              The amount of slots
+     * @param holder            The holder, can be <code>null</code>
+     * @param title             The title
+     * @param titleComponent    The title as a component, can be <code>null</code> if it was set as a string
+     * @return The inventory
+     */
+    static Inventory create(InventoryType type, int size, InventoryHolder holder, String title, Component titleComponent) {
+        Class<? extends Inventory> inventoryClass = type == InventoryType.PLAYER ? PlayerInventory.class : Inventory.class;
+        return StandInProxy.create(inventoryClass, new StandInInventory(type, size, holder, title, titleComponent));
+    }
+
+    /**
+     * Get the state of an inventory of the stand-in server
+     * @param inventory The inventory
+     * @return The state
+     */
+    static StandInInventory of(Inventory inventory) {
+        StandInProxy.Handler handler = StandInProxy.getHandler(inventory);
+        if (!(handler instanceof StandInInventory)) {
+            throw new IllegalArgumentException("Not an inventory of the stand-in server: " + inventory);
+        }
+        return (StandInInventory) handler;
+    }
+
+    InventoryType getType() {
+        return type;
+    }
+
+    String getTitle() {
+        return title;
+    }
+
+    Component getTitleComponent() {
+        return titleComponent;
+    }
+
+    List<HumanEntity> getViewers() {
+        return viewers;
+    }
+
+    @Override
+    public Object handle(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getSize":
+                return contents.length;
+            case "getMaxStackSize":
+                return 64;
+            case "getType":
+                return type;
+            case "getHolder":
+                return holder;
+            case "getViewers":
+                return viewers;
+            case "getLocation":
+                return null;
+            case "getItem":
+                return contents[(int) args[0]];
+            case "setItem":
+                contents[(int) args[0]] = copy((ItemStack) args[1]);
+                return null;
+            case "getContents":
+            case "getStorageContents":
+                return contents.clone();
+            case "setContents":
+            case "setStorageContents":
+                setContents((ItemStack[]) args[0]);
+                return null;
+            case "clear":
+                if (args.length == 0) {
+                    Arrays.fill(contents, null);
+                } else {
+                    contents[(int) args[0]] = null;
+                }
+                return null;
+            case "firstEmpty":
+                return firstEmpty();
+            case "isEmpty":
+                return Arrays.stream(contents).allMatch(item -> item == null);
+            case "addItem":
+                return addItem((ItemStack[]) args[0]);
+            case "iterator":
+                return Arrays.asList(contents).listIterator();
+        }
+        return StandInProxy.UNSUPPORTED;
+    }
+
+    private void setContents(ItemStack[] items) {
+        if (items.length > contents.length) {
+            throw new IllegalArgumentException("Invalid inventory size (" + items.length + "); expected " + contents.length + " or less");
+        }
+        for (int i = 0; i < contents.length; i++) {
+            contents[i] = i < items.length ? copy(items[i]) : null;
+        }
+    }
+
+    private int firstEmpty() {
+        for (int i = 0; i < contents.length; i++) {
+            if (contents[i] == null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Map<Integer, ItemStack> addItem(ItemStack[] items) {
+        Map<Integer, ItemStack> leftover = new HashMap<>();
+        for (int i = 0; i < items.length; i++) {
+            ItemStack item = items[i].clone();
+            for (int slot = 0; slot < contents.length && item.getAmount() > 0; slot++) {
+                ItemStack stored = contents[slot];
+                if (stored == null) {
+                    int amount = Math.min(item.getAmount(), item.getMaxStackSize());
+                    stored = item.clone();
+                    stored.setAmount(amount);
+                    contents[slot] = stored;
+                    item.setAmount(item.getAmount() - amount);
+                } else if (stored.isSimilar(item) && stored.getAmount() < stored.getMaxStackSize()) {
+                    int amount = Math.min(item.getAmount(), stored.getMaxStackSize() - stored.getAmount());
+                    stored.setAmount(stored.getAmount() + amount);
+                    item.setAmount(item.getAmount() - amount);
+                }
+            }
+            if (item.getAmount() > 0) {
+                leftover.put(i, item);
+            }
+        }
+        return leftover;
+    }
+
+    private static ItemStack copy(ItemStack item) {
+        return item == null || item.getType().isAir() || item.getAmount() <= 0 ? null : item.clone();
+    }
+}
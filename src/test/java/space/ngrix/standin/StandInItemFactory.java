@@ -0,0 +1,45 @@
+package space.ngrix.standin;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.lang.reflect.Method;
+
+/**
+ * Item factory that creates {@link StandInItemMeta}s. Every material except air can have meta.
+ */
+final class StandInItemFactory implements StandInProxy.Handler {
+
+    private StandInItemFactory() {}
+
+    /**
+     * Create the item factory
+     * @return The item factory
+     */
+    static ItemFactory create() {
+        return StandInProxy.create(ItemFactory.class, new StandInItemFactory());
+    }
+
+    @Override
+    public Object handle(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getItemMeta":
+                return ((Material) args[0]).isAir() ? null : StandInItemMeta.create();
+            case "isApplicable":
+                return args[0] == null || StandInProxy.getHandler(args[0]) instanceof StandInItemMeta;
+            case "equals":
+                if (args.length == 2) {
+                    return StandInItemMeta.getProperties((ItemMeta) args[0]).equals(StandInItemMeta.getProperties((ItemMeta) args[1]));
+                }
+                break;
+            case "asMetaFor":
+                return args[0];
+            case "updateMaterial":
+                return args[1];
+            case "ensureServerConversions":
+                return args[0];
+        }
+        return StandInProxy.UNSUPPORTED;
+    }
+}
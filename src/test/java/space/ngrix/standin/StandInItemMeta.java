@@ -0,0 +1,101 @@
+package space.ngrix.standin;
+
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Item meta that stores its properties in a map. Getters, setters and <code>has</code> checks are resolved by
+ * the name of the property, so every property of the API works without being listed here. Setting a property to
+ * <code>null</code> or to an empty collection removes it like the server does.
+ */
+final class StandInItemMeta implements StandInProxy.Handler {
+    private final Map<String, Object> properties;
+
+    private StandInItemMeta(Map<String, Object> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Create new, empty item meta
+     * @return The meta, it also implements {@link Damageable}
+     */
+    static ItemMeta create() {
+        return create(new LinkedHashMap<>());
+    }
+
+    private static ItemMeta create(Map<String, Object> properties) {
+        return StandInProxy.create(Damageable.class, new StandInItemMeta(properties));
+    }
+
+    /**
+     * Get the properties of a meta
+     * @param meta  The meta, can be <code>null</code>
+     * @return The properties, empty if the meta is <code>null</code>
+     */
+    static Map<String, Object> getProperties(ItemMeta meta) {
+        if (meta == null) {
+            return Map.of();
+        }
+        StandInProxy.Handler handler = StandInProxy.getHandler(meta);
+        if (!(handler instanceof StandInItemMeta)) {
+            throw new IllegalArgumentException("Not a meta of the stand-in server: " + meta.getClass());
+        }
+        return ((StandInItemMeta) handler).properties;
+    }
+
+    @Override
+    public Object handle(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        switch (name) {
+            case "clone":
+                return create(copy(properties));
+            case "equals":
+                return args[0] instanceof ItemMeta && StandInProxy.getHandler(args[0]) instanceof StandInItemMeta
+                        && properties.equals(getProperties((ItemMeta) args[0]));
+            case "hashCode":
+                return properties.hashCode();
+            case "toString":
+                return "StandInItemMeta" + properties;
+        }
+        if (args.length == 0) {
+            if (name.startsWith("has")) {
+                String property = name.substring(3);
+                return properties.containsKey(property) || properties.containsKey(decapitalize(property));
+            }
+            String property = name.startsWith("get") ? name.substring(3) : name.startsWith("is") ? name.substring(2) : name;
+            Object value = properties.get(property);
+            return value != null ? copy(value) : StandInProxy.defaultValue(method.getReturnType());
+        }
+        if (args.length == 1 && method.getReturnType() == void.class) {
+            String property = name.startsWith("set") ? name.substring(3) : name;
+            Object value = args[0];
+            if (value == null || value instanceof Collection && ((Collection<?>) value).isEmpty()) {
+                properties.remove(property);
+            } else {
+                properties.put(property, copy(value));
+            }
+            return null;
+        }
+        return StandInProxy.UNSUPPORTED;
+    }
+
+    private static String decapitalize(String property) {
+        return property.isEmpty() ? property : Character.toLowerCase(property.charAt(0)) + property.substring(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T copy(T value) {
+        if (value instanceof Map) {
+            return (T) new LinkedHashMap<>((Map<?, ?>) value);
+        } else if (value instanceof Collection) {
+            return (T) new ArrayList<>((Collection<?>) value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,137 @@
+package space.ngrix.standin;
+
+import io.papermc.paper.threadedregions.scheduler.EntityScheduler;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+/**
+ * A player of the stand-in server. Opening and closing inventories fires the same events as on the server,
+ * while a player doesn't look into a container their open view is the crafting view of their own inventory.
+ */
+final class StandInPlayer implements StandInProxy.Handler {
+    private final StandInServer server;
+    private final UUID uniqueId;
+    private final String name;
+    private final Player player;
+    private final Inventory inventory;
+    private final StandInView craftingView;
+    private final EntityScheduler scheduler;
+    private volatile InventoryView openView;
+    private volatile boolean online = true;
+    private InventoryView closing;
+    private ItemStack cursor;
+
+    StandInPlayer(StandInServer server, UUID uniqueId, String name) {
+        this.server = server;
+        this.uniqueId = uniqueId;
+        this.name = name;
+        this.player = StandInProxy.create(Player.class, this);
+        this.inventory = StandInInventory.create(InventoryType.PLAYER, InventoryType.PLAYER.getDefaultSize(), player, "Player", null);
+        Inventory crafting = StandInInventory.create(InventoryType.CRAFTING, InventoryType.CRAFTING.getDefaultSize(), player, "Crafting", null);
+        this.craftingView = new StandInView(player, crafting, inventory);
+        this.openView = craftingView;
+        this.scheduler = server.getStandInScheduler().createEntityScheduler(player);
+    }
+
+    Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Close the open inventory and take the player offline
+     */
+    void quit() {
+        close();
+        online = false;
+    }
+
+    @Override
+    public Object handle(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getUniqueId":
+                return uniqueId;
+            case "getName":
+            case "getDisplayName":
+            case "getPlayerListName":
+                return name;
+            case "getServer":
+                return server.getServer();
+            case "getScheduler":
+                return scheduler;
+            case "isOnline":
+            case "isValid":
+                return online;
+            case "isDead":
+            case "isOp":
+                return false;
+            case "hasPermission":
+                return true;
+            case "getInventory":
+                return inventory;
+            case "getOpenInventory":
+                return openView;
+            case "openInventory":
+                return args[0] instanceof Inventory ? open((Inventory) args[0]) : null;
+            case "closeInventory":
+                close();
+                return null;
+            case "getItemOnCursor":
+                return cursor != null ? cursor : new ItemStack(Material.AIR);
+            case "setItemOnCursor":
+                ItemStack item = (ItemStack) args[0];
+                cursor = item == null || item.getType().isAir() ? null : item.clone();
+                return null;
+            case "getLocation":
+            case "getEyeLocation":
+                return null;
+            case "updateInventory":
+            case "playSound":
+            case "sendMessage":
+                return null;
+        }
+        return StandInProxy.UNSUPPORTED;
+    }
+
+    private InventoryView open(Inventory top) {
+        if (!online) {
+            return null;
+        }
+        close();
+        StandInView view = new StandInView(player, top, inventory);
+        InventoryOpenEvent event = new InventoryOpenEvent(view);
+        server.callEvent(event);
+        if (event.isCancelled()) {
+            return null;
+        }
+        openView = view;
+        StandInInventory.of(top).getViewers().add(player);
+        return view;
+    }
+
+    private void close() {
+        InventoryView view = openView;
+        if (view == craftingView || view == closing) {
+            return;
+        }
+        // The view stays open while the event is handled, handlers can open another inventory
+        closing = view;
+        try {
+            server.callEvent(new InventoryCloseEvent(view));
+        } finally {
+            closing = null;
+        }
+        StandInInventory.of(view.getTopInventory()).getViewers().remove(player);
+        if (openView == view) {
+            openView = craftingView;
+        }
+    }
+}
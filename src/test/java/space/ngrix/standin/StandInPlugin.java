@@ -0,0 +1,69 @@
+package space.ngrix.standin;
+
+import org.bukkit.Server;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+import sun.misc.Unsafe;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.logging.Logger;
+
+/**
+ * A plugin of the stand-in server. {@link JavaPlugin}s can only be constructed by the plugin class loader of the
+ * server, so the instance is allocated without running a constructor and the fields that the loader would
+ * initialize are set directly.
+ */
+public final class StandInPlugin extends JavaPlugin {
+
+    private StandInPlugin() {
+        throw new IllegalStateException("Use StandInServer#createPlugin");
+    }
+
+    /**
+     * Create an enabled plugin
+     * @param server    The server of the plugin
+     * @param name      The name of the plugin
+     * @return The plugin
+     */
+    static StandInPlugin create(Server server, String name) {
+        StandInPlugin plugin;
+        try {
+            Field unsafeField = Unsafe.class.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            plugin = (StandInPlugin) ((Unsafe) unsafeField.get(null)).allocateInstance(StandInPlugin.class);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to allocate plugin " + name, e);
+        }
+        PluginDescriptionFile description = new PluginDescriptionFile(name, "1.0", StandInPlugin.class.getName());
+        plugin.setField("server", server, true);
+        plugin.setField("description", description, true);
+        plugin.setField("pluginMeta", description, false);
+        plugin.setField("dataFolder", new File(System.getProperty("java.io.tmpdir"), "stand-in-plugins" + File.separator + name), true);
+        plugin.setField("classLoader", StandInPlugin.class.getClassLoader(), false);
+        plugin.setField("logger", Logger.getLogger(name), true);
+        return plugin;
+    }
+
+    void enable() {
+        setEnabled(true);
+    }
+
+    void disable() {
+        setEnabled(false);
+    }
+
+    private void setField(String name, Object value, boolean required) {
+        try {
+            Field field = JavaPlugin.class.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(this, value);
+        } catch (NoSuchFieldException e) {
+            if (required) {
+                throw new IllegalStateException("JavaPlugin has no field " + name, e);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to set field " + name + " of JavaPlugin", e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package space.ngrix.standin;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * The plugin manager of the stand-in server. Listeners are registered and events are called like on the server,
+ * exceptions of listeners are logged and don't reach the caller of the event.
+ */
+final class StandInPluginManager implements StandInProxy.Handler {
+    private final StandInServer server;
+    private final Map<String, StandInPlugin> plugins = new LinkedHashMap<>();
+
+    StandInPluginManager(StandInServer server) {
+        this.server = server;
+    }
+
+    synchronized void addPlugin(StandInPlugin plugin) {
+        if (plugins.containsKey(plugin.getName())) {
+            throw new IllegalArgumentException("A plugin with the name " + plugin.getName() + " is already loaded");
+        }
+        plugins.put(plugin.getName(), plugin);
+    }
+
+    synchronized StandInPlugin[] getPlugins() {
+        return plugins.values().toArray(new StandInPlugin[0]);
+    }
+
+    /**
+     * Disable a plugin like the server does: the disable event is called while the plugin is still enabled, then
+     * its tasks are cancelled and its listeners are unregistered. The plugin is unloaded afterwards so that a
+     * plugin with the same name can be created again.
+     * @param plugin    The plugin to disable
+     */
+    void disablePlugin(Plugin plugin) {
+        if (!(plugin instanceof StandInPlugin) || !plugin.isEnabled()) {
+            return;
+        }
+        callEvent(new PluginDisableEvent(plugin));
+        ((StandInPlugin) plugin).disable();
+        server.getStandInScheduler().cancelTasks(plugin);
+        HandlerList.unregisterAll(plugin);
+        synchronized (this) {
+            plugins.remove(plugin.getName());
+        }
+    }
+
+    /**
+     * Call an event on all listeners of enabled plugins
+     * @param event The event
+     */
+    void callEvent(Event event) {
+        if (event.isAsynchronous() && server.getServer().isPrimaryThread()) {
+            throw new IllegalStateException(event.getEventName() + " may only be triggered asynchronously.");
+        } else if (!event.isAsynchronous() && !server.getServer().isPrimaryThread()) {
+            throw new IllegalStateException(event.getEventName() + " may only be triggered synchronously.");
+        }
+        for (RegisteredListener registration : event.getHandlers().getRegisteredListeners()) {
+            if (!registration.getPlugin().isEnabled()) {
+                continue;
+            }
+            try {
+                registration.callEvent(event);
+            } catch (EventException e) {
+                server.getLogger().log(Level.SEVERE, "Could not pass event " + event.getEventName() + " to "
+                        + registration.getPlugin().getName(), e.getCause() != null ? e.getCause() : e);
+            } catch (Throwable e) {
+                server.getLogger().log(Level.SEVERE, "Could not pass event " + event.getEventName() + " to "
+                        + registration.getPlugin().getName(), e);
+            }
+        }
+    }
+
+    @Override
+    public Object handle(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getPlugin":
+                synchronized (this) {
+                    return plugins.get((String) args[0]);
+                }
+            case "getPlugins":
+                return getPlugins();
+            case "isPluginEnabled":
+                if (args[0] instanceof String) {
+                    Plugin plugin;
+                    synchronized (this) {
+                        plugin = plugins.get(args[0]);
+                    }
+                    return plugin != null && plugin.isEnabled();
+                }
+                return args[0] != null && ((Plugin) args[0]).isEnabled();
+            case "disablePlugin":
+                disablePlugin((Plugin) args[0]);
+                return null;
+            case "callEvent":
+                callEvent((Event) args[0]);
+                return null;
+            case "registerEvents":
+                registerEvents((Listener) args[0], (Plugin) args[1]);
+                return null;
+            case "registerEvent":
+                if (args.length >= 5) {
+                    registerEvent((Class<?>) args[0], (Listener) args[1], (EventPriority) args[2], (EventExecutor) args[3],
+                            (Plugin) args[4], args.length > 5 && (boolean) args[5]);
+                    return null;
+                }
+                break;
+        }
+        return StandInProxy.UNSUPPORTED;
+    }
+
+    private void registerEvents(Listener listener, Plugin plugin) {
+        if (!plugin.isEnabled()) {
+            throw new IllegalPluginAccessException("Plugin attempted to register " + listener + " while not enabled");
+        }
+        Set<Method> methods = new LinkedHashSet<>();
+        for (Method method : listener.getClass().getMethods()) {
+            methods.add(method);
+        }
+        for (Method method : listener.getClass().getDeclaredMethods()) {
+            methods.add(method);
+        }
+        for (Method method : methods) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+            if (handler == null || method.isBridge() || method.isSynthetic()) {
+                continue;
+            }
+            if (method.getParameterCount() != 1 || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                throw new IllegalArgumentException(plugin.getName() + " attempted to register an invalid EventHandler method signature \""
+                        + method.toGenericString() + "\" in " + listener.getClass());
+            }
+            Class<?> eventClass = method.getParameterTypes()[0];
+            method.setAccessible(true);
+            EventExecutor executor = (l, event) -> {
+                if (!eventClass.isAssignableFrom(event.getClass())) {
+                    return;
+                }
+                try {
+                    method.invoke(l, event);
+                } catch (InvocationTargetException e) {
+                    throw new EventException(e.getCause());
+                } catch (Throwable t) {
+                    throw new EventException(t);
+                }
+            };
+            registerEvent(eventClass, listener, handler.priority(), executor, plugin, handler.ignoreCancelled());
+        }
+    }
+
+    private void registerEvent(Class<?> eventClass, Listener listener, EventPriority priority, EventExecutor executor, Plugin plugin, boolean ignoreCancelled) {
+        if (!plugin.isEnabled()) {
+            throw new IllegalPluginAccessException("Plugin attempted to register " + eventClass.getName() + " while not enabled");
+        }
+        getHandlerList(eventClass).register(new RegisteredListener(listener, executor, priority, plugin, ignoreCancelled));
+    }
+
+    private static HandlerList getHandlerList(Class<?> eventClass) {
+        for (Class<?> c = eventClass; c != null && Event.class.isAssignableFrom(c) && c != Event.class; c = c.getSuperclass()) {
+            try {
+                Method method = c.getDeclaredMethod("getHandlerList");
+                if (Modifier.isStatic(method.getModifiers())) {
+                    method.setAccessible(true);
+                    return (HandlerList) method.invoke(null);
+                }
+            } catch (NoSuchMethodException ignored) {
+                // Look at the super class
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Unable to get the handler list of " + eventClass.getName(), e);
+            }
+        }
+        throw new IllegalArgumentException("Unable to find handler list for event " + eventClass.getName() + ". Static getHandlerList method required!");
+    }
+}
@@ -0,0 +1,122 @@
+package space.ngrix.standin;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Creates the {@link Proxy}s that stand in for the Bukkit interfaces. Proxies only need to implement the
+ * methods that are actually called, so the stand-ins don't break when the API gets new methods.
+ */
+final class StandInProxy {
+    /**
+     * Returned by a {@link Handler} for methods that it doesn't implement
+     */
+    static final Object UNSUPPORTED = new Object();
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private StandInProxy() {}
+
+    /**
+     * Handles the calls of a proxy
+     */
+    interface Handler {
+        /**
+         * Handle a call
+         * @param proxy     The proxy that was called
+         * @param method    The called method
+         * @param args      The arguments, never <code>null</code>
+         * @return The result or {@link #UNSUPPORTED} if the method isn't implemented
+         * @throws Throwable Thrown by the implementation
+         */
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Create a proxy. Calls that the handler doesn't implement fall back to the default method of the interface,
+     * to identity for <code>equals</code>/<code>hashCode</code> or throw an {@link UnsupportedOperationException}.
+     * @param type          The main interface of the proxy
+     * @param handler       The handler of the calls
+     * @param interfaces    Further interfaces that the proxy implements
+     * @param <T>           The type of the main interface
+     * @return The proxy
+     */
+    static <T> T create(Class<T> type, Handler handler, Class<?>... interfaces) {
+        Class<?>[] all = new Class<?>[interfaces.length + 1];
+        all[0] = type;
+        System.arraycopy(interfaces, 0, all, 1, interfaces.length);
+        return type.cast(Proxy.newProxyInstance(StandInProxy.class.getClassLoader(), all, new Invocation(type, handler)));
+    }
+
+    /**
+     * Get the handler of a proxy that was created by {@link #create(Class, Handler, Class[])}
+     * @param proxy The proxy
+     * @return The handler or <code>null</code> if the object isn't one of these proxies
+     */
+    static Handler getHandler(Object proxy) {
+        if (proxy == null || !Proxy.isProxyClass(proxy.getClass())) {
+            return null;
+        }
+        InvocationHandler invocation = Proxy.getInvocationHandler(proxy);
+        return invocation instanceof Invocation ? ((Invocation) invocation).handler : null;
+    }
+
+    /**
+     * Get the value that a method with a certain return type returns when it has nothing to return
+     * @param type  The return type
+     * @return <code>null</code> or the zero value of primitives
+     */
+    static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        }
+        return (byte) 0;
+    }
+
+    private static class Invocation implements InvocationHandler {
+        private final Class<?> type;
+        private final Handler handler;
+
+        private Invocation(Class<?> type, Handler handler) {
+            this.type = type;
+            this.handler = handler;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = handler.handle(proxy, method, args != null ? args : NO_ARGS);
+            if (result != UNSUPPORTED) {
+                return result;
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "StandIn" + type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                }
+            }
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "#" + method.getName()
+                    + " isn't supported by the stand-in server");
+        }
+    }
+}
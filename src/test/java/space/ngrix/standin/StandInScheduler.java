@@ -0,0 +1,384 @@
+package space.ngrix.standin;
+
+import io.papermc.paper.threadedregions.scheduler.AsyncScheduler;
+import io.papermc.paper.threadedregions.scheduler.EntityScheduler;
+import io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * The schedulers of the stand-in server. The Bukkit scheduler, the global region scheduler and the entity
+ * schedulers share one queue of tasks that runs when the server is ticked. Delays are counted in ticks and are at
+ * least one tick. Async tasks run on a pool of daemon threads right away.
+ */
+final class StandInScheduler {
+    private final StandInServer server;
+    private final Queue<Task> submitted = new ConcurrentLinkedQueue<>();
+    private final List<Task> pending = new ArrayList<>();
+    private final Set<Task> tasks = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger taskIds = new AtomicInteger();
+    private final ExecutorService asyncExecutor;
+    private final BukkitScheduler bukkitScheduler;
+    private final GlobalRegionScheduler globalRegionScheduler;
+    private final AsyncScheduler asyncScheduler;
+
+    StandInScheduler(StandInServer server) {
+        this.server = server;
+        AtomicInteger threads = new AtomicInteger();
+        asyncExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "StandIn-Async-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        bukkitScheduler = StandInProxy.create(BukkitScheduler.class, this::handleBukkit);
+        globalRegionScheduler = StandInProxy.create(GlobalRegionScheduler.class, this::handleGlobalRegion);
+        asyncScheduler = StandInProxy.create(AsyncScheduler.class, this::handleAsync);
+    }
+
+    BukkitScheduler getBukkitScheduler() {
+        return bukkitScheduler;
+    }
+
+    GlobalRegionScheduler getGlobalRegionScheduler() {
+        return globalRegionScheduler;
+    }
+
+    AsyncScheduler getAsyncScheduler() {
+        return asyncScheduler;
+    }
+
+    /**
+     * Create the scheduler of a player. Its tasks are retired once the player went offline.
+     * @param player    The player
+     * @return The scheduler
+     */
+    EntityScheduler createEntityScheduler(Player player) {
+        return StandInProxy.create(EntityScheduler.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "execute": {
+                    if (!player.isOnline()) {
+                        return false;
+                    }
+                    Runnable run = (Runnable) args[1];
+                    schedule((Plugin) args[0], player, (Runnable) args[2], st -> run.run(), (long) args[3], 0, false);
+                    return true;
+                }
+                case "run":
+                case "runDelayed":
+                case "runAtFixedRate":
+                    if (!player.isOnline()) {
+                        return null;
+                    }
+                    return schedule((Plugin) args[0], player, (Runnable) args[2], consumer(args[1]),
+                            args.length > 3 ? (long) args[3] : 1, args.length > 4 ? (long) args[4] : 0, false).scheduledTask;
+            }
+            return StandInProxy.UNSUPPORTED;
+        });
+    }
+
+    /**
+     * Run the sync tasks that are due
+     * @param currentTick   The tick that is running
+     */
+    void tick(int currentTick) {
+        for (Task task; (task = submitted.poll()) != null; ) {
+            pending.add(task);
+        }
+        // Tasks that are submitted while this runs wait in the submitted queue for the next tick
+        for (Iterator<Task> it = pending.iterator(); it.hasNext(); ) {
+            Task task = it.next();
+            if (task.isCancelled()) {
+                it.remove();
+                tasks.remove(task);
+            } else if (task.entity != null && !task.entity.isOnline()) {
+                it.remove();
+                tasks.remove(task);
+                task.retire();
+            } else if (task.nextTick <= currentTick) {
+                task.run();
+                if (task.isRepeating() && !task.isCancelled()) {
+                    task.nextTick = currentTick + task.period;
+                } else {
+                    it.remove();
+                    tasks.remove(task);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancel all tasks of a plugin
+     * @param plugin    The plugin, <code>null</code> cancels the tasks of all plugins
+     */
+    void cancelTasks(Plugin plugin) {
+        for (Task task : tasks) {
+            if (plugin == null || task.plugin.equals(plugin)) {
+                task.cancel();
+            }
+        }
+    }
+
+    /**
+     * Count the repeating tasks of a plugin that weren't cancelled
+     * @param plugin    The plugin
+     * @return The amount of timers
+     */
+    int countTimers(Plugin plugin) {
+        int timers = 0;
+        for (Task task : tasks) {
+            if (task.plugin.equals(plugin) && task.isRepeating() && !task.isCancelled()) {
+                timers++;
+            }
+        }
+        return timers;
+    }
+
+    private Object handleBukkit(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "runTask":
+                return schedule((Plugin) args[0], null, null, bukkitConsumer(method, args[1]), 1, 0, false).bukkitTask;
+            case "runTaskLater":
+                return schedule((Plugin) args[0], null, null, bukkitConsumer(method, args[1]), (long) args[2], 0, false).bukkitTask;
+            case "runTaskTimer":
+                return schedule((Plugin) args[0], null, null, bukkitConsumer(method, args[1]), (long) args[2], (long) args[3], false).bukkitTask;
+            case "runTaskAsynchronously":
+                return schedule((Plugin) args[0], null, null, bukkitConsumer(method, args[1]), 0, 0, true).bukkitTask;
+            case "cancelTask":
+                for (Task task : tasks) {
+                    if (task.id == (int) args[0]) {
+                        task.cancel();
+                    }
+                }
+                return null;
+            case "cancelTasks":
+                cancelTasks((Plugin) args[0]);
+                return null;
+            case "isCurrentlyRunning":
+            case "isQueued": {
+                boolean running = method.getName().equals("isCurrentlyRunning");
+                for (Task task : tasks) {
+                    if (task.id == (int) args[0]) {
+                        return running ? task.state == ScheduledTask.ExecutionState.RUNNING : !task.isCancelled();
+                    }
+                }
+                return false;
+            }
+        }
+        return StandInProxy.UNSUPPORTED;
+    }
+
+    private Object handleGlobalRegion(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "execute": {
+                Runnable run = (Runnable) args[1];
+                schedule((Plugin) args[0], null, null, st -> run.run(), 1, 0, false);
+                return null;
+            }
+            case "run":
+                return schedule((Plugin) args[0], null, null, consumer(args[1]), 1, 0, false).scheduledTask;
+            case "runDelayed":
+                return schedule((Plugin) args[0], null, null, consumer(args[1]), positive((long) args[2], "Delay ticks"), 0, false).scheduledTask;
+            case "runAtFixedRate":
+                return schedule((Plugin) args[0], null, null, consumer(args[1]), positive((long) args[2], "Initial delay ticks"),
+                        positive((long) args[3], "Period ticks"), false).scheduledTask;
+            case "cancelTasks":
+                cancelTasks((Plugin) args[0]);
+                return null;
+        }
+        return StandInProxy.UNSUPPORTED;
+    }
+
+    private Object handleAsync(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "runNow":
+                return schedule((Plugin) args[0], null, null, consumer(args[1]), 0, 0, true).scheduledTask;
+            case "cancelTasks":
+                cancelTasks((Plugin) args[0]);
+                return null;
+        }
+        return StandInProxy.UNSUPPORTED;
+    }
+
+    private Task schedule(Plugin plugin, Player entity, Runnable retired, Consumer<Task> body, long delay, long period, boolean async) {
+        if (plugin == null) {
+            throw new IllegalArgumentException("Plugin cannot be null");
+        }
+        if (!plugin.isEnabled()) {
+            throw new IllegalPluginAccessException("Plugin attempted to register task while disabled");
+        }
+        Task task = new Task(taskIds.incrementAndGet(), plugin, entity, retired, body, period, async);
+        tasks.add(task);
+        if (async) {
+            asyncExecutor.execute(() -> {
+                task.run();
+                tasks.remove(task);
+            });
+        } else {
+            task.nextTick = server.getCurrentTick() + Math.max(1, delay);
+            submitted.add(task);
+        }
+        return task;
+    }
+
+    private static long positive(long ticks, String name) {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException(name + " may not be <= 0");
+        }
+        return ticks;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<Task> consumer(Object task) {
+        Consumer<ScheduledTask> consumer = (Consumer<ScheduledTask>) task;
+        return t -> consumer.accept(t.scheduledTask);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<Task> bukkitConsumer(Method method, Object task) {
+        if (method.getParameterTypes()[1] == Consumer.class) {
+            Consumer<BukkitTask> consumer = (Consumer<BukkitTask>) task;
+            return t -> consumer.accept(t.bukkitTask);
+        }
+        Runnable runnable = (Runnable) task;
+        return t -> runnable.run();
+    }
+
+    /**
+     * A task of any of the schedulers, it can be used as a {@link BukkitTask} and as a {@link ScheduledTask}
+     */
+    private final class Task {
+        private final int id;
+        private final Plugin plugin;
+        private final Player entity;
+        private final Runnable retired;
+        private final Consumer<Task> body;
+        private final long period;
+        private final boolean async;
+        private final BukkitTask bukkitTask;
+        private final ScheduledTask scheduledTask;
+        private volatile ScheduledTask.ExecutionState state = ScheduledTask.ExecutionState.IDLE;
+        private long nextTick;
+
+        private Task(int id, Plugin plugin, Player entity, Runnable retired, Consumer<Task> body, long period, boolean async) {
+            this.id = id;
+            this.plugin = plugin;
+            this.entity = entity;
+            this.retired = retired;
+            this.body = body;
+            this.period = period;
+            this.async = async;
+            this.bukkitTask = StandInProxy.create(BukkitTask.class, this::handleBukkitTask);
+            this.scheduledTask = StandInProxy.create(ScheduledTask.class, this::handleScheduledTask);
+        }
+
+        private boolean isRepeating() {
+            return period > 0;
+        }
+
+        private boolean isCancelled() {
+            return state == ScheduledTask.ExecutionState.CANCELLED || state == ScheduledTask.ExecutionState.CANCELLED_RUNNING;
+        }
+
+        private void run() {
+            synchronized (this) {
+                if (state != ScheduledTask.ExecutionState.IDLE) {
+                    return;
+                }
+                state = ScheduledTask.ExecutionState.RUNNING;
+            }
+            try {
+                body.accept(this);
+            } catch (Throwable t) {
+                server.getLogger().log(Level.WARNING, "Task #" + id + " for " + plugin.getName() + " generated an exception", t);
+            }
+            synchronized (this) {
+                if (state == ScheduledTask.ExecutionState.CANCELLED_RUNNING) {
+                    state = ScheduledTask.ExecutionState.CANCELLED;
+                } else {
+                    state = isRepeating() ? ScheduledTask.ExecutionState.IDLE : ScheduledTask.ExecutionState.FINISHED;
+                }
+            }
+        }
+
+        private void retire() {
+            synchronized (this) {
+                if (state != ScheduledTask.ExecutionState.IDLE) {
+                    return;
+                }
+                state = ScheduledTask.ExecutionState.CANCELLED;
+            }
+            if (retired != null) {
+                retired.run();
+            }
+        }
+
+        private synchronized ScheduledTask.CancelledState cancel() {
+            switch (state) {
+                case IDLE:
+                    state = ScheduledTask.ExecutionState.CANCELLED;
+                    return ScheduledTask.CancelledState.CANCELLED_BY_CALLER;
+                case RUNNING:
+                    if (!isRepeating()) {
+                        return ScheduledTask.CancelledState.RUNNING;
+                    }
+                    state = ScheduledTask.ExecutionState.CANCELLED_RUNNING;
+                    return ScheduledTask.CancelledState.NEXT_RUNS_CANCELLED;
+                case CANCELLED:
+                    return ScheduledTask.CancelledState.CANCELLED_ALREADY;
+                case CANCELLED_RUNNING:
+                    return ScheduledTask.CancelledState.NEXT_RUNS_CANCELLED_ALREADY;
+                default:
+                    return ScheduledTask.CancelledState.ALREADY_EXECUTED;
+            }
+        }
+
+        private Object handleBukkitTask(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getTaskId":
+                    return id;
+                case "getOwner":
+                    return plugin;
+                case "isSync":
+                    return !async;
+                case "isCancelled":
+                    return isCancelled();
+                case "cancel":
+                    cancel();
+                    return null;
+            }
+            return StandInProxy.UNSUPPORTED;
+        }
+
+        private Object handleScheduledTask(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getOwningPlugin":
+                    return plugin;
+                case "isRepeatingTask":
+                    return isRepeating();
+                case "cancel":
+                    return cancel();
+                case "getExecutionState":
+                    return state;
+            }
+            return StandInProxy.UNSUPPORTED;
+        }
+    }
+}
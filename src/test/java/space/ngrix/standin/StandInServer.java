@@ -0,0 +1,311 @@
+package space.ngrix.standin;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+/**
+ * A headless stand-in for a Paper server that implements enough of the API to open, draw, page and click GUIs
+ * without a running server. The Bukkit interfaces are implemented by proxies, calling a method that the stand-ins
+ * don't implement throws an {@link UnsupportedOperationException} that names the method.<br>
+ * There is only one server per JVM as {@link Bukkit} holds it in a static field. The thread that created the
+ * server or last called {@link #tick()} is its main thread. Sync tasks only run when the server is ticked.
+ */
+public final class StandInServer implements StandInProxy.Handler {
+    private static StandInServer instance;
+
+    private final Logger logger = Logger.getLogger("StandInServer");
+    private final Server server;
+    private final StandInScheduler scheduler;
+    private final StandInPluginManager pluginManager;
+    private final PluginManager pluginManagerProxy;
+    private final ItemFactory itemFactory;
+    private final Map<UUID, StandInPlayer> players = new ConcurrentHashMap<>();
+    private volatile Thread mainThread = Thread.currentThread();
+    private volatile int currentTick;
+
+    private StandInServer() {
+        server = StandInProxy.create(Server.class, this);
+        scheduler = new StandInScheduler(this);
+        pluginManager = new StandInPluginManager(this);
+        pluginManagerProxy = StandInProxy.create(PluginManager.class, pluginManager);
+        itemFactory = StandInItemFactory.create();
+    }
+
+    /**
+     * Get the server, it is created and set as the Bukkit server on the first call
+     * @return The stand-in server
+     */
+    public static synchronized StandInServer get() {
+        if (instance == null) {
+            StandInServer standIn = new StandInServer();
+            Bukkit.setServer(standIn.server);
+            instance = standIn;
+        }
+        return instance;
+    }
+
+    /**
+     * Get the server as the API sees it
+     * @return The server
+     */
+    public Server getServer() {
+        return server;
+    }
+
+    /**
+     * Get the tick that is running or that ran last
+     * @return The current tick
+     */
+    public int getCurrentTick() {
+        return currentTick;
+    }
+
+    Logger getLogger() {
+        return logger;
+    }
+
+    StandInScheduler getStandInScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Create and enable a plugin
+     * @param name  The name of the plugin, no other loaded plugin may have it
+     * @return The enabled plugin
+     */
+    public StandInPlugin createPlugin(String name) {
+        StandInPlugin plugin = StandInPlugin.create(server, name);
+        pluginManager.addPlugin(plugin);
+        plugin.enable();
+        return plugin;
+    }
+
+    /**
+     * Let a player join the server
+     * @param name  The name of the player
+     * @return The player
+     */
+    public Player addPlayer(String name) {
+        StandInPlayer player = new StandInPlayer(this, UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes()), name);
+        if (players.putIfAbsent(player.getPlayer().getUniqueId(), player) != null) {
+            throw new IllegalArgumentException("The player " + name + " is already online");
+        }
+        return player.getPlayer();
+    }
+
+    /**
+     * Let a player quit. Like on the server the quit event is called before their inventory gets closed.
+     * @param player    The player
+     */
+    public void removePlayer(Player player) {
+        StandInPlayer standIn = players.get(player.getUniqueId());
+        if (standIn == null) {
+            return;
+        }
+        callEvent(new PlayerQuitEvent(player, (String) null));
+        standIn.quit();
+        players.remove(player.getUniqueId());
+    }
+
+    /**
+     * Click on a slot of the inventory view that a player has open
+     * @param player    The player that clicks
+     * @param rawSlot   The raw slot in the view or {@link InventoryView#OUTSIDE}
+     * @param click     The type of click
+     * @return The called event
+     */
+    public InventoryClickEvent click(HumanEntity player, int rawSlot, ClickType click) {
+        InventoryAction action;
+        if (click.isShiftClick()) {
+            action = InventoryAction.MOVE_TO_OTHER_INVENTORY;
+        } else if (click.isRightClick()) {
+            action = InventoryAction.PICKUP_HALF;
+        } else {
+            action = InventoryAction.PICKUP_ALL;
+        }
+        InventoryType.SlotType slotType = rawSlot < 0 ? InventoryType.SlotType.OUTSIDE : InventoryType.SlotType.CONTAINER;
+        InventoryClickEvent event = new InventoryClickEvent(player.getOpenInventory(), slotType, rawSlot, click, action);
+        callEvent(event);
+        return event;
+    }
+
+    /**
+     * Count the repeating tasks of a plugin that weren't cancelled
+     * @param plugin    The plugin
+     * @return The amount of timers that the plugin is running
+     */
+    public int getTimers(Plugin plugin) {
+        return scheduler.countTimers(plugin);
+    }
+
+    /**
+     * Call an event like the server's plugin manager does
+     * @param event The event
+     */
+    public void callEvent(Event event) {
+        pluginManager.callEvent(event);
+    }
+
+    /**
+     * Run one tick on the calling thread, which becomes the main thread
+     */
+    public void tick() {
+        mainThread = Thread.currentThread();
+        scheduler.tick(++currentTick);
+    }
+
+    /**
+     * Run several ticks
+     * @param ticks The amount of ticks to run
+     */
+    public void tick(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            tick();
+        }
+    }
+
+    /**
+     * Tick until a condition is met, e.g. until the result of an async task was applied
+     * @param condition     The condition, it is checked before every tick
+     * @param timeoutMillis The maximum time to wait
+     * @return Whether or not the condition was met in time
+     */
+    public boolean tickUntil(BooleanSupplier condition, long timeoutMillis) {
+        long end = System.nanoTime() + timeoutMillis * 1_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - end > 0) {
+                return false;
+            }
+            tick();
+            Thread.yield();
+        }
+        return true;
+    }
+
+    /**
+     * Disable all plugins, let all players quit and cancel the tasks that remain so that the next test starts
+     * with an empty server
+     */
+    public void reset() {
+        mainThread = Thread.currentThread();
+        for (StandInPlugin plugin : pluginManager.getPlugins()) {
+            pluginManager.disablePlugin(plugin);
+        }
+        for (StandInPlayer player : new ArrayList<>(players.values())) {
+            removePlayer(player.getPlayer());
+        }
+        scheduler.cancelTasks(null);
+        scheduler.tick(currentTick);
+    }
+
+    @Override
+    public Object handle(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getLogger":
+                return logger;
+            case "getName":
+                return "StandIn";
+            case "getVersion":
+                return "stand-in (MC: 1.20.2)";
+            case "getBukkitVersion":
+                return "1.20.2-R0.1-SNAPSHOT";
+            case "getMinecraftVersion":
+                return "1.20.2";
+            case "getItemFactory":
+                return itemFactory;
+            case "getPluginManager":
+                return pluginManagerProxy;
+            case "getScheduler":
+                return scheduler.getBukkitScheduler();
+            case "getGlobalRegionScheduler":
+                return scheduler.getGlobalRegionScheduler();
+            case "getAsyncScheduler":
+                return scheduler.getAsyncScheduler();
+            case "isPrimaryThread":
+            case "isGlobalTickThread":
+            case "isOwnedByCurrentRegion":
+                return Thread.currentThread() == mainThread;
+            case "getCurrentTick":
+                return currentTick;
+            case "getOnlinePlayers":
+                return getOnlinePlayers();
+            case "getPlayer":
+            case "getPlayerExact":
+                return getPlayer(args[0]);
+            case "createInventory":
+                return createInventory((InventoryHolder) args[0], args[1], args.length > 2 ? args[2] : null);
+        }
+        return StandInProxy.UNSUPPORTED;
+    }
+
+    private Collection<Player> getOnlinePlayers() {
+        List<Player> online = new ArrayList<>(players.size());
+        for (StandInPlayer player : players.values()) {
+            online.add(player.getPlayer());
+        }
+        return Collections.unmodifiableList(online);
+    }
+
+    private Player getPlayer(Object id) {
+        if (id instanceof UUID) {
+            StandInPlayer player = players.get(id);
+            return player != null ? player.getPlayer() : null;
+        }
+        for (StandInPlayer player : players.values()) {
+            if (player.getPlayer().getName().equalsIgnoreCase((String) id)) {
+                return player.getPlayer();
+            }
+        }
+        return null;
+    }
+
+    private Object createInventory(InventoryHolder holder, Object typeOrSize, Object title) {
+        InventoryType type;
+        int size;
+        if (typeOrSize instanceof InventoryType) {
+            type = (InventoryType) typeOrSize;
+            if (!type.isCreatable()) {
+                throw new IllegalArgumentException("Inventory Type '" + type + "' is not creatable");
+            }
+            size = type.getDefaultSize();
+        } else {
+            type = InventoryType.CHEST;
+            size = (int) typeOrSize;
+            if (size < 9 || size > 54 || size % 9 != 0) {
+                throw new IllegalArgumentException("Size for custom inventory must be a multiple of 9 between 9 and 54 slots (got " + size + ")");
+            }
+        }
+        if (title instanceof Component) {
+            // Only the text of the root component is used as the string title
+            String text = title instanceof TextComponent ? ((TextComponent) title).content() : type.getDefaultTitle();
+            return StandInInventory.create(type, size, holder, text, (Component) title);
+        }
+        return StandInInventory.create(type, size, holder, title != null ? (String) title : type.getDefaultTitle(), null);
+    }
+}
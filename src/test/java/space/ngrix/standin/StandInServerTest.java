@@ -0,0 +1,122 @@
+package space.ngrix.standin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import space.ngrix.gui.GuiElementGroup;
+import space.ngrix.gui.GuiPageElement;
+import space.ngrix.gui.InventoryGui;
+import space.ngrix.gui.StaticGuiElement;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StandInServerTest {
+
+    private StandInServer server;
+    private StandInPlugin plugin;
+
+    @BeforeEach
+    public void setUp(TestInfo info) {
+        server = StandInServer.get();
+        // Plugins are equal by name, use a new name for each test so nothing can be reused across tests
+        plugin = server.createPlugin("StandInTest-" + info.getTestMethod().map(Method::getName).orElse(""));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.reset();
+    }
+
+    @Test
+    public void isTheBukkitServer() {
+        assertSame(server.getServer(), Bukkit.getServer());
+        assertTrue(plugin.isEnabled());
+        assertSame(plugin, server.getServer().getPluginManager().getPlugin(plugin.getName()));
+    }
+
+    @Test
+    public void itemMetaIsCopiedWithTheItem() {
+        ItemStack item = new ItemStack(Material.STONE);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName("Stone");
+        assertTrue(item.setItemMeta(meta));
+        ItemStack copy = item.clone();
+        assertEquals(item, copy);
+        assertEquals("Stone", copy.getItemMeta().getDisplayName());
+        meta.setDisplayName("Changed");
+        assertEquals("Stone", item.getItemMeta().getDisplayName());
+        assertFalse(new ItemStack(Material.STONE).hasItemMeta());
+    }
+
+    @Test
+    public void showsAndClicksGui() {
+        AtomicInteger clicks = new AtomicInteger();
+        InventoryGui gui = new InventoryGui(plugin, "Test", false, new String[]{"a        "},
+                new StaticGuiElement('a', new ItemStack(Material.DIAMOND), click -> {
+                    clicks.incrementAndGet();
+                    return true;
+                }, "Diamond"));
+        Player player = server.addPlayer("Viewer");
+
+        gui.show(player);
+        assertEquals(InventoryType.CHEST, player.getOpenInventory().getType());
+        assertEquals(Material.DIAMOND, player.getOpenInventory().getTopInventory().getItem(0).getType());
+        assertSame(gui, InventoryGui.getOpen(player));
+
+        InventoryClickEvent event = server.click(player, 0, ClickType.LEFT);
+        assertTrue(event.isCancelled());
+        assertEquals(1, clicks.get());
+
+        player.closeInventory();
+        assertEquals(InventoryType.CRAFTING, player.getOpenInventory().getType());
+        assertNull(InventoryGui.getOpen(player));
+    }
+
+    @Test
+    public void pagesGroupForEveryViewer() {
+        GuiElementGroup group = new GuiElementGroup('g');
+        for (int i = 0; i < 20; i++) {
+            group.addElement(new StaticGuiElement('i', new ItemStack(Material.PAPER, i + 1), "Item " + i));
+        }
+        InventoryGui gui = new InventoryGui(plugin, "Pages", false, new String[]{"ggggggggn"}, group,
+                new GuiPageElement('n', new ItemStack(Material.ARROW), GuiPageElement.PageAction.NEXT, "Next"));
+        Player first = server.addPlayer("First");
+        Player second = server.addPlayer("Second");
+        gui.show(first);
+        gui.show(second);
+
+        server.click(first, 8, ClickType.LEFT);
+        server.tick(2);
+        assertEquals(1, gui.getPageNumber(first));
+        assertEquals(0, gui.getPageNumber(second));
+        assertEquals(9, first.getOpenInventory().getTopInventory().getItem(0).getAmount());
+        assertEquals(1, second.getOpenInventory().getTopInventory().getItem(0).getAmount());
+    }
+
+    @Test
+    public void runsTasksWhenTicked() {
+        AtomicInteger runs = new AtomicInteger();
+        server.getServer().getScheduler().runTaskTimer(plugin, runs::incrementAndGet, 1, 2);
+        server.getServer().getGlobalRegionScheduler().runDelayed(plugin, task -> runs.addAndGet(100), 3);
+        assertEquals(0, runs.get());
+        server.tick(3);
+        assertEquals(102, runs.get());
+
+        server.getServer().getPluginManager().disablePlugin(plugin);
+        server.tick(4);
+        assertEquals(102, runs.get());
+        assertFalse(plugin.isEnabled());
+    }
+}
@@ -0,0 +1,68 @@
+package space.ngrix.standin;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+
+/**
+ * The view of a player on an inventory of the stand-in server
+ */
+final class StandInView extends InventoryView {
+    private final HumanEntity player;
+    private final Inventory top;
+    private final Inventory bottom;
+    private final String originalTitle;
+    private final Component titleComponent;
+    private String title;
+
+    StandInView(HumanEntity player, Inventory top, Inventory bottom) {
+        this.player = player;
+        this.top = top;
+        this.bottom = bottom;
+        StandInInventory inventory = StandInInventory.of(top);
+        this.originalTitle = inventory.getTitle();
+        this.titleComponent = inventory.getTitleComponent();
+        this.title = originalTitle;
+    }
+
+    @Override
+    public Inventory getTopInventory() {
+        return top;
+    }
+
+    @Override
+    public Inventory getBottomInventory() {
+        return bottom;
+    }
+
+    @Override
+    public HumanEntity getPlayer() {
+        return player;
+    }
+
+    @Override
+    public InventoryType getType() {
+        return top.getType();
+    }
+
+    public Component title() {
+        return titleComponent != null && title.equals(originalTitle) ? titleComponent : Component.text(title);
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    @Override
+    public String getOriginalTitle() {
+        return originalTitle;
+    }
+
+    @Override
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}